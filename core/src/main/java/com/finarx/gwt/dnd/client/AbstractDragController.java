@@ -14,6 +14,7 @@
 package com.finarx.gwt.dnd.client;
 
 import com.finarx.gwt.dnd.client.util.DragClientBundle;
+import com.finarx.gwt.dnd.client.util.LayoutCache;
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.user.client.ui.AbsolutePanel;
 import com.google.gwt.user.client.ui.RootPanel;
@@ -23,6 +24,7 @@ import com.finarx.gwt.dnd.client.util.DOMUtil;
 
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 
 /**
  * {@link DragController} which performs the bare essentials such as adding/removing styles,
@@ -49,11 +51,22 @@ public abstract class AbstractDragController implements DragController {
 
   private boolean cancelDocumentSelections = true;
 
+  /**
+   * Whether or not drag moves are coalesced per animation frame.
+   */
+  private boolean coalesceMoves = false;
+
   /**
    * Whether or not widgets are physically constrained to the boundary panel.
    */
   private boolean constrainedToBoundaryPanel;
 
+  /**
+   * Draggable and drag handle registrations when event delegation is enabled, otherwise
+   * <code>null</code>.
+   */
+  private DelegatedDragHandles delegatedDragHandles;
+
   /**
    * The current drag end event, created in {@link #previewDragEnd()} and returned a second time in
    * {@link #dragEnd()}.
@@ -76,6 +89,11 @@ public abstract class AbstractDragController implements DragController {
    */
   private int dragStartSensitivityPixels;
 
+  /**
+   * The input handler currently attached to drag handles.
+   */
+  private DragInputHandler dragInputHandler;
+
   /**
    * This drag controller's mouse drag handler.
    */
@@ -86,6 +104,16 @@ public abstract class AbstractDragController implements DragController {
    */
   private boolean multipleSelectionAllowed = false;
 
+  /**
+   * This drag controller's pointer drag handler, created on demand.
+   */
+  private PointerDragHandler pointerDragHandler;
+
+  /**
+   * Whether Pointer Events input behavior is enabled.
+   */
+  private boolean pointerEvents = false;
+
   /**
    * Whether scrollIntoView() or it's equivalent is to be called during dragging.
    */
@@ -103,6 +131,7 @@ public abstract class AbstractDragController implements DragController {
     this.boundaryPanel = boundaryPanel;
     context = new DragContext(this);
     mouseDragHandler = new MouseDragHandler(context);
+    dragInputHandler = mouseDragHandler;
   }
 
   @Override
@@ -124,6 +153,7 @@ public abstract class AbstractDragController implements DragController {
 
   @Override
   public void dragEnd() {
+    LayoutCache.stop();
     context.draggable.removeStyleName(DragClientBundle.INSTANCE.css().dragging());
     if (dragHandlers != null) {
       dragHandlers.fireDragEnd(dragEndEvent);
@@ -144,6 +174,7 @@ public abstract class AbstractDragController implements DragController {
         }
       }
     }
+    LayoutCache.start();
     resetCache();
     if (dragHandlers != null) {
       dragHandlers.fireDragStart(dragStartEvent);
@@ -158,6 +189,11 @@ public abstract class AbstractDragController implements DragController {
     return cancelDocumentSelections;
   }
 
+  @Override
+  public boolean getBehaviorCoalesceMoves() {
+    return coalesceMoves;
+  }
+
   @Override
   public boolean getBehaviorConstrainedToBoundaryPanel() {
     return constrainedToBoundaryPanel;
@@ -168,11 +204,21 @@ public abstract class AbstractDragController implements DragController {
     return dragStartSensitivityPixels;
   }
 
+  @Override
+  public boolean getBehaviorEventDelegation() {
+    return delegatedDragHandles != null;
+  }
+
   @Override
   public boolean getBehaviorMultipleSelection() {
     return multipleSelectionAllowed;
   }
 
+  @Override
+  public boolean getBehaviorPointerEvents() {
+    return pointerEvents;
+  }
+
   @Override
   public boolean getBehaviorScrollIntoView() {
     return scrollIntoView;
@@ -184,8 +230,8 @@ public abstract class AbstractDragController implements DragController {
   }
 
   /**
-   * Attaches a {@link MouseDragHandler} to the widget, applies styles to the draggable and the
-   * handle.
+   * Attaches a {@link MouseDragHandler} (or {@link PointerDragHandler}) to the widget, applies
+   * styles to the draggable and the handle.
    * 
    * @see #makeDraggable(Widget, Widget)
    * @see HasDragHandle
@@ -210,10 +256,14 @@ public abstract class AbstractDragController implements DragController {
    */
   @Override
   public void makeDraggable(Widget draggable, Widget dragHandle) {
-    mouseDragHandler.makeDraggable(draggable, dragHandle);
+    dragInputHandler.makeDraggable(draggable, dragHandle);
     draggable.addStyleName(DragClientBundle.INSTANCE.css().draggable());
     dragHandle.addStyleName(DragClientBundle.INSTANCE.css().handle());
-    dragHandles.put(draggable, dragHandle);
+    if (delegatedDragHandles != null) {
+      delegatedDragHandles.register(draggable, dragHandle);
+    } else {
+      dragHandles.put(draggable, dragHandle);
+    }
   }
 
   /**
@@ -224,8 +274,9 @@ public abstract class AbstractDragController implements DragController {
    */
   @Override
   public void makeNotDraggable(Widget draggable) {
-    Widget dragHandle = dragHandles.remove(draggable);
-    mouseDragHandler.makeNotDraggable(dragHandle);
+    Widget dragHandle = delegatedDragHandles != null ? delegatedDragHandles.unregister(draggable)
+        : dragHandles.remove(draggable);
+    dragInputHandler.makeNotDraggable(dragHandle);
     draggable.removeStyleName(DragClientBundle.INSTANCE.css().draggable());
     dragHandle.removeStyleName(DragClientBundle.INSTANCE.css().handle());
   }
@@ -262,6 +313,7 @@ public abstract class AbstractDragController implements DragController {
 
   @Override
   public void resetCache() {
+    LayoutCache.invalidate();
   }
 
   @Override
@@ -269,6 +321,11 @@ public abstract class AbstractDragController implements DragController {
     this.cancelDocumentSelections = cancelDocumentSelections;
   }
 
+  @Override
+  public void setBehaviorCoalesceMoves(boolean coalesceMoves) {
+    this.coalesceMoves = coalesceMoves;
+  }
+
   @Override
   public void setBehaviorConstrainedToBoundaryPanel(boolean constrainedToBoundaryPanel) {
     this.constrainedToBoundaryPanel = constrainedToBoundaryPanel;
@@ -280,6 +337,17 @@ public abstract class AbstractDragController implements DragController {
     dragStartSensitivityPixels = pixels;
   }
 
+  @Override
+  public void setBehaviorEventDelegation(boolean eventDelegation) {
+    assert context.draggable == null : "Cannot change input handling while dragging";
+    if (eventDelegation == getBehaviorEventDelegation()) {
+      return;
+    }
+    assert dragHandles.isEmpty() : "Event delegation must be set before widgets are made draggable";
+    delegatedDragHandles = eventDelegation ? new DelegatedDragHandles() : null;
+    dragInputHandler.setDelegatedDragHandles(delegatedDragHandles);
+  }
+
   @Override
   public void setBehaviorMultipleSelection(boolean multipleSelectionAllowed) {
     this.multipleSelectionAllowed = multipleSelectionAllowed;
@@ -290,6 +358,33 @@ public abstract class AbstractDragController implements DragController {
     }
   }
 
+  @Override
+  public void setBehaviorPointerEvents(boolean pointerEvents) {
+    assert context.draggable == null : "Cannot change input handling while dragging";
+    this.pointerEvents = pointerEvents;
+    DragInputHandler newDragInputHandler;
+    if (pointerEvents && PointerDragHandler.isSupported()) {
+      if (pointerDragHandler == null) {
+        pointerDragHandler = new PointerDragHandler(context);
+      }
+      newDragInputHandler = pointerDragHandler;
+    } else {
+      newDragInputHandler = mouseDragHandler;
+    }
+    if (newDragInputHandler != dragInputHandler) {
+      if (delegatedDragHandles != null) {
+        dragInputHandler.setDelegatedDragHandles(null);
+        newDragInputHandler.setDelegatedDragHandles(delegatedDragHandles);
+      }
+      // move existing drag handles over to the new input handler
+      for (Map.Entry<Widget, Widget> entry : dragHandles.entrySet()) {
+        dragInputHandler.makeNotDraggable(entry.getValue());
+        newDragInputHandler.makeDraggable(entry.getKey(), entry.getValue());
+      }
+      dragInputHandler = newDragInputHandler;
+    }
+  }
+
   @Override
   public void setBehaviorScrollIntoView(boolean scrollIntoView) {
     this.scrollIntoView = scrollIntoView;
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client;
+
+/**
+ * {@link CacheInvalidationPolicy} which rebuilds the drop target cache periodically, backing off
+ * while the drop target geometry stays the same. After a number of consecutive rebuilds which found
+ * no change, the period doubles, up to a maximum; as soon as a rebuild finds a change, the period
+ * returns to the minimum.
+ */
+public class AdaptiveCacheInvalidationPolicy implements CacheInvalidationPolicy {
+
+  private static final int DEFAULT_MAX_PERIOD_MILLIS = 1600;
+
+  private static final int DEFAULT_MIN_PERIOD_MILLIS = 100;
+
+  private static final int DEFAULT_UNCHANGED_REFRESHES = 3;
+
+  private long lastResetCacheTimeMillis;
+
+  private final int maxPeriodMillis;
+
+  private final int minPeriodMillis;
+
+  private int periodMillis;
+
+  private int unchangedCount;
+
+  private final int unchangedRefreshes;
+
+  /**
+   * Create a policy which starts rebuilding the cache every 100 milliseconds, and backs off to at
+   * most every 1600 milliseconds after every 3 rebuilds without change.
+   */
+  public AdaptiveCacheInvalidationPolicy() {
+    this(DEFAULT_MIN_PERIOD_MILLIS, DEFAULT_MAX_PERIOD_MILLIS, DEFAULT_UNCHANGED_REFRESHES);
+  }
+
+  /**
+   * Create an adaptive policy.
+   *
+   * @param minPeriodMillis the initial time between cache rebuilds, in milliseconds
+   * @param maxPeriodMillis the maximum time between cache rebuilds, in milliseconds
+   * @param unchangedRefreshes the number of consecutive rebuilds without change after which the
+   *          period doubles
+   */
+  public AdaptiveCacheInvalidationPolicy(int minPeriodMillis, int maxPeriodMillis,
+      int unchangedRefreshes) {
+    assert 0 < minPeriodMillis && minPeriodMillis <= maxPeriodMillis;
+    assert unchangedRefreshes > 0;
+    this.minPeriodMillis = minPeriodMillis;
+    this.maxPeriodMillis = maxPeriodMillis;
+    this.unchangedRefreshes = unchangedRefreshes;
+    periodMillis = minPeriodMillis;
+  }
+
+  /**
+   * Get the current time between cache rebuilds.
+   *
+   * @return the period in milliseconds
+   */
+  public int getPeriodMillis() {
+    return periodMillis;
+  }
+
+  @Override
+  public void onDragEnd(PickupDragController dragController) {
+  }
+
+  @Override
+  public void onDragMove(PickupDragController dragController) {
+    long timeMillis = System.currentTimeMillis();
+    if (timeMillis - lastResetCacheTimeMillis < periodMillis) {
+      return;
+    }
+    lastResetCacheTimeMillis = timeMillis;
+    dragController.resetCache();
+    if (dragController.isCacheChanged()) {
+      unchangedCount = 0;
+      periodMillis = minPeriodMillis;
+    } else if (++unchangedCount >= unchangedRefreshes) {
+      unchangedCount = 0;
+      periodMillis = Math.min(maxPeriodMillis, periodMillis * 2);
+    }
+  }
+
+  @Override
+  public void onDragStart(PickupDragController dragController) {
+    lastResetCacheTimeMillis = System.currentTimeMillis();
+    periodMillis = minPeriodMillis;
+    unchangedCount = 0;
+  }
+}
@@ -0,0 +1,431 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client;
+
+import com.finarx.gwt.dnd.client.util.DOMUtil;
+import com.finarx.gwt.dnd.client.util.LayoutCache;
+import com.finarx.gwt.dnd.client.util.MutableArea;
+import com.finarx.gwt.dnd.client.util.impl.BoundingClientRect;
+import com.google.gwt.animation.client.AnimationScheduler;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationCallback;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationHandle;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.dom.client.Document;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.user.client.Window;
+
+import java.util.ArrayList;
+
+/**
+ * Implementation helper class for {@link PickupDragController} which scrolls the scrollable
+ * ancestors of the engaged drop target and of the boundary panel, and the browser window, while the
+ * pointer rests near one of their edges. Scrolling happens at most once per animation frame, faster
+ * the closer the pointer is to the edge, and along each axis only the innermost container which
+ * can still scroll in that direction is scrolled.
+ *
+ * <p> All containers are measured before any of them is scrolled. The drag controller is then told
+ * how far each one scrolled, so that it can shift its cached drop target geometry instead of
+ * rebuilding the drop target cache, and the drag is moved as if the pointer had moved. </p>
+ */
+class AutoScroller implements AnimationCallback {
+
+  /**
+   * Expando property set on an element, or on the document for the window, which an auto scroller
+   * scrolled during the previous animation frame. Scroll listeners use it to ignore the resulting
+   * scroll events, as the drop target cache has already been updated.
+   */
+  static final String AUTO_SCROLLED = "__gwtDndAutoScrolled";
+
+  /**
+   * Time in milliseconds ahead of which auto scrolling asks for drop targets to be measured.
+   */
+  private static final double LOOKAHEAD_MILLIS = 500;
+
+  /**
+   * Longest frame interval taken into account, so that a stalled frame does not cause a jump.
+   */
+  private static final double MAX_FRAME_MILLIS = 50;
+
+  /**
+   * Scroll speed in pixels per second with the pointer at the very edge of a container.
+   */
+  private static final double MAX_SPEED = 1200;
+
+  private static native void setAutoScrolled(JavaScriptObject target, boolean autoScrolled)
+  /*-{
+    target[@com.finarx.gwt.dnd.client.AutoScroller::AUTO_SCROLLED] = autoScrolled;
+  }-*/;
+
+  /**
+   * Elements, and possibly the document, flagged as {@link #AUTO_SCROLLED} in the previous frame.
+   */
+  private final ArrayList<JavaScriptObject> autoScrolled = new ArrayList<JavaScriptObject>();
+
+  /**
+   * Client edges of the containers, the window last, as measured in the current frame, and the
+   * distances they scrolled. Reused from frame to frame and grown as needed.
+   */
+  private int[] bottoms = new int[0];
+
+  /**
+   * Client area of a scrolled container, reused when reporting it to the drag controller.
+   */
+  private final MutableArea clientArea = new MutableArea();
+
+  private final DragContext context;
+
+  /**
+   * Speed in pixels per second of the fastest scrolling in the most recent frame, or
+   * <code>0</code>.
+   */
+  private double currentSpeed;
+
+  private int[] deltaXs = new int[0];
+
+  private int[] deltaYs = new int[0];
+
+  private final PickupDragController dragController;
+
+  /**
+   * Width in pixels of the zone along the edges of a container within which it is scrolled.
+   */
+  private final int edge;
+
+  /**
+   * Timestamp of the previous frame which scrolled, or <code>0</code>.
+   */
+  private double lastTimestamp;
+
+  private int[] lefts = new int[0];
+
+  /**
+   * Handle of the pending animation frame request or <code>null</code>.
+   */
+  private AnimationHandle pendingFrame;
+
+  /**
+   * Fractions of a pixel which were due but not yet scrolled, carried over to the next frame.
+   */
+  private double remainderX;
+
+  private double remainderY;
+
+  private int[] rights = new int[0];
+
+  /**
+   * Scrollable containers, innermost first, excluding the window.
+   */
+  private final ArrayList<Element> scrollables = new ArrayList<Element>();
+
+  /**
+   * The drop target element for which {@link #scrollables} were found, or <code>null</code>.
+   */
+  private Element scrollablesDropTarget;
+
+  private int[] tops = new int[0];
+
+  AutoScroller(PickupDragController dragController, DragContext context, int edge) {
+    this.dragController = dragController;
+    this.context = context;
+    this.edge = edge;
+  }
+
+  /**
+   * Stop scrolling and forget all state of the current drag operation.
+   */
+  void cancel() {
+    if (pendingFrame != null) {
+      pendingFrame.cancel();
+      pendingFrame = null;
+    }
+    clearAutoScrolled();
+    currentSpeed = 0;
+    lastTimestamp = 0;
+    remainderX = remainderY = 0;
+    scrollables.clear();
+    scrollablesDropTarget = null;
+  }
+
+  @Override
+  public void execute(double timestamp) {
+    pendingFrame = null;
+    clearAutoScrolled();
+    if (context.draggable == null) {
+      return;
+    }
+    double millis = lastTimestamp == 0 ? 1000.0 / 60 : Math.min(timestamp - lastTimestamp,
+        MAX_FRAME_MILLIS);
+    if (scroll(millis)) {
+      lastTimestamp = timestamp;
+      // keep scrolling while the pointer rests in an edge zone
+      update();
+    } else {
+      lastTimestamp = 0;
+    }
+  }
+
+  /**
+   * Get the distance the current auto scrolling covers in the near future, so that drop targets
+   * which it is about to bring into view can be measured in time.
+   *
+   * @return the distance in pixels, or <code>0</code> while not auto scrolling
+   */
+  int getLookahead() {
+    return (int) Math.ceil(currentSpeed * LOOKAHEAD_MILLIS / 1000);
+  }
+
+  /**
+   * Called after each drag move to check, in the next animation frame, whether the pointer is in
+   * an edge zone.
+   */
+  void update() {
+    if (pendingFrame == null) {
+      pendingFrame = AnimationScheduler.get().requestAnimationFrame(this);
+    }
+  }
+
+  private void addScrollables(Element elem) {
+    Element body = Document.get().getBody();
+    Element documentElement = Document.get().getDocumentElement();
+    // the document itself is scrolled as the window
+    while (elem != null && elem != body && elem != documentElement) {
+      if (!scrollables.contains(elem) && isScrollable(elem)) {
+        scrollables.add(elem);
+      }
+      elem = elem.getParentElement();
+    }
+  }
+
+  private void clearAutoScrolled() {
+    for (int i = 0; i < autoScrolled.size(); i++) {
+      setAutoScrolled(autoScrolled.get(i), false);
+    }
+    autoScrolled.clear();
+  }
+
+  /**
+   * Determine the scroll speed for a pointer at the given distance inside the edge of a container.
+   * The speed grows quadratically from zero at the inner border of the edge zone to the maximum at
+   * the edge.
+   */
+  private double getSpeed(int distance) {
+    if (distance >= edge) {
+      return 0;
+    }
+    double depth = (double) (edge - Math.max(0, distance)) / edge;
+    return MAX_SPEED * depth * depth;
+  }
+
+  private boolean isScrollable(Element elem) {
+    String overflowX = DOMUtil.getEffectiveStyle(elem, "overflowX");
+    String overflowY = DOMUtil.getEffectiveStyle(elem, "overflowY");
+    return (isScrollingOverflow(overflowX) && elem.getScrollWidth() > elem.getClientWidth())
+        || (isScrollingOverflow(overflowY) && elem.getScrollHeight() > elem.getClientHeight());
+  }
+
+  private boolean isScrollingOverflow(String overflow) {
+    return "auto".equals(overflow) || "scroll".equals(overflow) || "overlay".equals(overflow);
+  }
+
+  /**
+   * Measure all scrollable containers, scroll those whose edge zones contain the pointer, and
+   * report how far they scrolled to the drag controller.
+   *
+   * @return <code>true</code> if auto scrolling should continue in the next frame
+   */
+  private boolean scroll(double millis) {
+    updateScrollables();
+    int windowScrollLeft = Window.getScrollLeft();
+    int windowScrollTop = Window.getScrollTop();
+    int count = scrollables.size() + 1;
+    if (lefts.length < count) {
+      lefts = new int[count];
+      tops = new int[count];
+      rights = new int[count];
+      bottoms = new int[count];
+      deltaXs = new int[count];
+      deltaYs = new int[count];
+    }
+    for (int i = 0; i < scrollables.size(); i++) {
+      Element elem = scrollables.get(i);
+      int left;
+      int top;
+      if (DOMUtil.isBoundingClientRectGeometry()) {
+        BoundingClientRect rect = DOMUtil.getBoundingClientRect(elem);
+        left = (int) Math.round(rect.getLeft());
+        top = (int) Math.round(rect.getTop());
+      } else {
+        left = elem.getAbsoluteLeft() - windowScrollLeft;
+        top = elem.getAbsoluteTop() - windowScrollTop;
+      }
+      // the client area, excluding borders and scroll bars
+      lefts[i] = left + elem.getPropertyInt("clientLeft");
+      tops[i] = top + elem.getPropertyInt("clientTop");
+      rights[i] = lefts[i] + elem.getClientWidth() - 1;
+      bottoms[i] = tops[i] + elem.getClientHeight() - 1;
+    }
+    lefts[count - 1] = tops[count - 1] = 0;
+    rights[count - 1] = Window.getClientWidth() - 1;
+    bottoms[count - 1] = Window.getClientHeight() - 1;
+
+    int pointerX = context.mouseX - windowScrollLeft;
+    int pointerY = context.mouseY - windowScrollTop;
+    for (int i = 0; i < count; i++) {
+      deltaXs[i] = deltaYs[i] = 0;
+    }
+    currentSpeed = 0;
+    boolean activeX = scrollAxis(true, pointerX, lefts, rights, deltaXs, count, millis);
+    boolean activeY = scrollAxis(false, pointerY, tops, bottoms, deltaYs, count, millis);
+
+    boolean scrolled = false;
+    for (int i = 0; i < count; i++) {
+      if (deltaXs[i] != 0 || deltaYs[i] != 0) {
+        if (!scrolled) {
+          // cached clip rectangles no longer apply, and the scroll events are yet to come
+          LayoutCache.invalidateScroll();
+          scrolled = true;
+        }
+        if (i < scrollables.size()) {
+          // containers are measured before any scrolling, so report in the same coordinates
+          clientArea.set(lefts[i] + windowScrollLeft, tops[i] + windowScrollTop, rights[i]
+              + windowScrollLeft, bottoms[i] + windowScrollTop);
+          dragController.containerScrolled(scrollables.get(i), clientArea, deltaXs[i],
+              deltaYs[i]);
+        } else {
+          // drop target page coordinates are unaffected, but the pointer moved across the page
+          context.mouseX += deltaXs[i];
+          context.mouseY += deltaYs[i];
+          context.desiredDraggableX += deltaXs[i];
+          context.desiredDraggableY += deltaYs[i];
+        }
+      }
+    }
+    if (scrolled) {
+      dragController.dragMove();
+    }
+    return activeX || activeY;
+  }
+
+  /**
+   * Scroll the innermost container, along one axis, whose edge zone contains the pointer and which
+   * can still scroll in that direction.
+   *
+   * @param horizontal <code>true</code> to scroll horizontally, <code>false</code> vertically
+   * @param pointer the pointer client coordinate along the axis
+   * @param lows the low client edges of the containers, the window last
+   * @param highs the high client edges of the containers, the window last
+   * @param deltas receives the distance each container actually scrolled
+   * @param count the number of containers, including the window
+   * @param millis the time elapsed since the previous frame
+   * @return <code>true</code> if the pointer is in the edge zone of a container which can scroll
+   */
+  private boolean scrollAxis(boolean horizontal, int pointer, int[] lows, int[] highs,
+      int[] deltas, int count, double millis) {
+    double remainder = horizontal ? remainderX : remainderY;
+    boolean active = false;
+    for (int i = 0; i < count; i++) {
+      if (pointer < lows[i] || pointer > highs[i]) {
+        continue;
+      }
+      double speed = getSpeed(pointer - lows[i]);
+      if (speed != 0) {
+        speed = -speed;
+      } else {
+        speed = getSpeed(highs[i] - pointer);
+      }
+      if (speed == 0) {
+        continue;
+      }
+      if (remainder * speed < 0) {
+        // reversed direction
+        remainder = 0;
+      }
+      double due = remainder + speed * millis / 1000;
+      int step = (int) due;
+      if (step == 0) {
+        // not a whole pixel yet; assume the container can scroll
+        remainder = due;
+        active = true;
+        break;
+      }
+      int delta = scrollBy(i < scrollables.size() ? scrollables.get(i) : null, horizontal, step);
+      if (delta != 0) {
+        deltas[i] = delta;
+        remainder = due - step;
+        currentSpeed = Math.max(currentSpeed, Math.abs(speed));
+        active = true;
+        break;
+      }
+      // at its limit; try the next container out
+    }
+    if (!active) {
+      remainder = 0;
+    }
+    if (horizontal) {
+      remainderX = remainder;
+    } else {
+      remainderY = remainder;
+    }
+    return active;
+  }
+
+  /**
+   * Scroll a container, or the window when <code>elem</code> is <code>null</code>, and determine
+   * how far it actually scrolled.
+   */
+  private int scrollBy(Element elem, boolean horizontal, int step) {
+    JavaScriptObject target;
+    int delta;
+    if (elem == null) {
+      int scrollLeft = Window.getScrollLeft();
+      int scrollTop = Window.getScrollTop();
+      if (horizontal) {
+        Window.scrollTo(scrollLeft + step, scrollTop);
+        delta = Window.getScrollLeft() - scrollLeft;
+      } else {
+        Window.scrollTo(scrollLeft, scrollTop + step);
+        delta = Window.getScrollTop() - scrollTop;
+      }
+      target = Document.get();
+    } else {
+      // raw properties, whose direction is the same in left-to-right and right-to-left content
+      String property = horizontal ? "scrollLeft" : "scrollTop";
+      int position = elem.getPropertyInt(property);
+      elem.setPropertyInt(property, position + step);
+      delta = elem.getPropertyInt(property) - position;
+      target = elem;
+    }
+    if (delta != 0) {
+      setAutoScrolled(target, true);
+      autoScrolled.add(target);
+    }
+    return delta;
+  }
+
+  /**
+   * Find the scrollable ancestors of the engaged drop target, followed by those of the boundary
+   * panel not already found, whenever the engaged drop target changes.
+   */
+  private void updateScrollables() {
+    Element dropTarget = context.dropController == null ? null
+        : context.dropController.getDropTarget().getElement();
+    if (dropTarget == scrollablesDropTarget && dropTarget != null) {
+      return;
+    }
+    scrollablesDropTarget = dropTarget;
+    scrollables.clear();
+    addScrollables(dropTarget);
+    addScrollables(context.boundaryPanel.getElement());
+  }
+}
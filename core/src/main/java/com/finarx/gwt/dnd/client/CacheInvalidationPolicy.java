@@ -0,0 +1,64 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client;
+
+/**
+ * Decides when a {@link PickupDragController} refreshes its drop target cache during a drag
+ * operation. The drop target cache holds the measured location and size of each drop target; it is
+ * always rebuilt when a drag operation starts, and must be refreshed whenever drop targets may have
+ * moved, for example due to scrolling, resizing or DOM changes.
+ *
+ * <p> Built-in policies: </p>
+ * <ul>
+ * <li>{@link TimedCacheInvalidationPolicy} rebuilds the cache at a fixed interval (the
+ * default).</li>
+ * <li>{@link EventDrivenCacheInvalidationPolicy} rebuilds the cache after scroll or resize
+ * events.</li>
+ * <li>{@link ObserverCacheInvalidationPolicy} observes the DOM and re-measures only affected drop
+ * targets.</li>
+ * <li>{@link AdaptiveCacheInvalidationPolicy} rebuilds the cache less often while the geometry does
+ * not change.</li>
+ * <li>{@link ManualCacheInvalidationPolicy} only rebuilds the cache when the application calls
+ * {@link PickupDragController#resetCache()}.</li>
+ * </ul>
+ *
+ * <p> Policies may keep state for the current drag operation, so an instance must not be shared by
+ * several drag controllers. </p>
+ *
+ * @see PickupDragController#setCacheInvalidationPolicy(CacheInvalidationPolicy)
+ */
+public interface CacheInvalidationPolicy {
+
+  /**
+   * Called when a drag operation ends, before the drop is performed.
+   *
+   * @param dragController the drag controller
+   */
+  void onDragEnd(PickupDragController dragController);
+
+  /**
+   * Called for each pointer move, before the drop target under the pointer is determined. Call
+   * {@link PickupDragController#resetCache()} to refresh the drop target cache.
+   *
+   * @param dragController the drag controller
+   */
+  void onDragMove(PickupDragController dragController);
+
+  /**
+   * Called when a drag operation starts, after the drop target cache has been built.
+   *
+   * @param dragController the drag controller
+   */
+  void onDragStart(PickupDragController dragController);
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client;
+
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.dom.client.EventTarget;
+import com.google.gwt.user.client.ui.Widget;
+
+/**
+ * Implementation helper class which records draggable and drag handle pairs for
+ * {@link DragController#setBehaviorEventDelegation(boolean) event delegation}. Each pair is stored
+ * as an expando property on the drag handle and draggable elements, so registration neither adds
+ * event handlers to the drag handle nor grows any map, and the drag handle of an input event is
+ * resolved by walking up from the event target.
+ */
+class DelegatedDragHandles {
+
+  private static class RegisteredDraggable {
+    private final Widget draggable;
+    private final Widget dragHandle;
+
+    RegisteredDraggable(Widget draggable, Widget dragHandle) {
+      this.draggable = draggable;
+      this.dragHandle = dragHandle;
+    }
+  }
+
+  private static int nextId = 0;
+
+  /**
+   * Expando property key, unique to this instance, so that drag controllers sharing elements do
+   * not see each other's registrations.
+   */
+  private final String expandoKey;
+
+  DelegatedDragHandles() {
+    expandoKey = "__gwtDndDraggable" + nextId++;
+  }
+
+  /**
+   * Find the drag handle containing an event target, stopping at the element on which the
+   * delegated listener is installed.
+   *
+   * @param eventTarget the target of the input event
+   * @param delegatingElement the element listening for input on behalf of all drag handles
+   * @return the drag handle or <code>null</code> if the event target is not inside a drag handle
+   */
+  Widget findDragHandle(EventTarget eventTarget, Element delegatingElement) {
+    if (!Element.is(eventTarget)) {
+      return null;
+    }
+    Element elem = Element.as(eventTarget);
+    while (elem != null) {
+      RegisteredDraggable registeredDraggable = get(elem);
+      if (registeredDraggable != null && registeredDraggable.dragHandle.getElement() == elem) {
+        return registeredDraggable.dragHandle;
+      }
+      if (elem == delegatingElement) {
+        return null;
+      }
+      elem = elem.getParentElement();
+    }
+    return null;
+  }
+
+  /**
+   * Get the draggable for a drag handle.
+   *
+   * @param dragHandle the drag handle
+   * @return the draggable or <code>null</code> if the drag handle is not registered
+   */
+  Widget getDraggable(Widget dragHandle) {
+    RegisteredDraggable registeredDraggable = get(dragHandle.getElement());
+    return registeredDraggable == null ? null : registeredDraggable.draggable;
+  }
+
+  void register(Widget draggable, Widget dragHandle) {
+    RegisteredDraggable registeredDraggable = new RegisteredDraggable(draggable, dragHandle);
+    draggable.getElement().setPropertyObject(expandoKey, registeredDraggable);
+    dragHandle.getElement().setPropertyObject(expandoKey, registeredDraggable);
+  }
+
+  /**
+   * Remove the registration of a draggable.
+   *
+   * @param draggable the draggable
+   * @return the drag handle of the draggable
+   */
+  Widget unregister(Widget draggable) {
+    RegisteredDraggable registeredDraggable = get(draggable.getElement());
+    if (registeredDraggable == null) {
+      throw new RuntimeException("draggable was not draggable");
+    }
+    draggable.getElement().setPropertyObject(expandoKey, null);
+    registeredDraggable.dragHandle.getElement().setPropertyObject(expandoKey, null);
+    return registeredDraggable.dragHandle;
+  }
+
+  private RegisteredDraggable get(Element elem) {
+    return (RegisteredDraggable) elem.getPropertyObject(expandoKey);
+  }
+}
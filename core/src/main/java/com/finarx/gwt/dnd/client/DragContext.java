@@ -59,6 +59,11 @@ public class DragContext {
    */
   public DropController dropController;
 
+  /**
+   * The drop feedback overlay of the current drag operation, or <code>null</code>.
+   */
+  DropFeedbackOverlay dropFeedbackOverlay;
+
   /**
    * The drop controller which participated in the final drop, or <code>null</code> before the final
    * drop has occurred, or when the drag controller does not utilize drop controllers.
@@ -67,6 +72,11 @@ public class DragContext {
    */
   public DropController finalDropController;
 
+  /**
+   * The geometry snapshot of the current drag operation, or <code>null</code>.
+   */
+  DragGeometrySnapshot geometrySnapshot;
+
   /**
    * Current mouse x coordinate.
    */
@@ -115,4 +125,28 @@ public class DragContext {
     finalDropController = null;
     vetoException = null;
   }
+
+  /**
+   * Get the layer in which drop controllers should draw their drop feedback, instead of changing
+   * their drop targets.
+   *
+   * @return the drop feedback overlay, or <code>null</code> if drop feedback overlay behavior is
+   *         disabled
+   * @see PickupDragController#setBehaviorDropFeedbackOverlay(boolean)
+   */
+  public DropFeedbackOverlay getDropFeedbackOverlay() {
+    return dropFeedbackOverlay;
+  }
+
+  /**
+   * Get the geometry of the current drag operation as measured when the drop target cache was last
+   * refreshed, which drop controllers may use instead of reading layout on every move.
+   *
+   * @return the geometry snapshot, or <code>null</code> if the drag controller does not provide
+   *         one
+   * @see PickupDragController
+   */
+  public DragGeometrySnapshot getGeometrySnapshot() {
+    return geometrySnapshot;
+  }
 }
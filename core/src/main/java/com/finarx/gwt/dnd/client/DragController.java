@@ -59,6 +59,14 @@ public interface DragController extends FiresDragEvents {
    */
   boolean getBehaviorCancelDocumentSelections();
 
+  /**
+   * Determine whether or not pointer movements are coalesced so that {@link #dragMove()} is called
+   * at most once per animation frame.
+   * 
+   * @return <code>true</code> if drag moves are coalesced per animation frame
+   */
+  boolean getBehaviorCoalesceMoves();
+
   /**
    * Determine whether or not drag operations are constrained to the boundary panel.
    * 
@@ -73,6 +81,14 @@ public interface DragController extends FiresDragEvents {
    */
   int getBehaviorDragStartSensitivity();
 
+  /**
+   * Determines whether drag handles share a single delegated input listener on the boundary panel
+   * rather than each registering their own.
+   * 
+   * @return <code>true</code> if event delegation behavior is enabled
+   */
+  boolean getBehaviorEventDelegation();
+
   /**
    * Determines whether multiple widget selection behavior is enabled.
    * 
@@ -80,6 +96,14 @@ public interface DragController extends FiresDragEvents {
    */
   boolean getBehaviorMultipleSelection();
 
+  /**
+   * Determines whether drag handles listen for Pointer Events rather than separate mouse and touch
+   * events.
+   * 
+   * @return <code>true</code> if Pointer Events input behavior is enabled
+   */
+  boolean getBehaviorPointerEvents();
+
   /**
    * Determines whether containing panels and the browser window should be scrolled during dragging
    * in order to keep draggable widgets visible.
@@ -158,6 +182,15 @@ public interface DragController extends FiresDragEvents {
    */
   void setBehaviorCancelDocumentSelections(boolean cancelDocumentSelections);
 
+  /**
+   * Set whether or not pointer movements should be coalesced so that {@link #dragMove()} is called
+   * at most once per animation frame, using the most recent pointer position. Any pending move is
+   * applied synchronously before the drop. The default is <code>false</code>.
+   * 
+   * @param coalesceMoves <code>true</code> to coalesce drag moves per animation frame
+   */
+  void setBehaviorCoalesceMoves(boolean coalesceMoves);
+
   /**
    * Set whether or not movable widget is to be constrained to the boundary panel during dragging.
    * The default is not to constrain the draggable or drag proxy.
@@ -175,6 +208,17 @@ public interface DragController extends FiresDragEvents {
    */
   void setBehaviorDragStartSensitivity(int pixels);
 
+  /**
+   * Set whether or not drag handles share a single input listener on the boundary panel instead of
+   * each drag handle registering its own mouse, touch or pointer listeners. The drag handle is
+   * resolved from the event target, so making widgets draggable is cheap when there are many of
+   * them. Drag handles must then be descendants of the boundary panel. Must be set before any
+   * widgets are made draggable. The default is <code>false</code>.
+   * 
+   * @param eventDelegation <code>true</code> to delegate input handling to the boundary panel
+   */
+  void setBehaviorEventDelegation(boolean eventDelegation);
+
   /**
    * Sets whether multiple widgets can be selected for dragging at one time via <code>CTRL</code>/
    * <code>META</code>-click. Defaults to <code>true</code>.
@@ -183,6 +227,17 @@ public interface DragController extends FiresDragEvents {
    */
   void setBehaviorMultipleSelection(boolean multipleSelectionAllowed);
 
+  /**
+   * Set whether or not drag handles should listen for Pointer Events (<code>pointerdown</code>,
+   * <code>pointermove</code>, <code>pointerup</code> and <code>pointercancel</code>) instead of
+   * separate mouse and touch events. Pointer Events use native pointer capture on the boundary
+   * panel rather than a full-screen capturing panel. Browsers without Pointer Events support keep
+   * using mouse and touch events. The default is <code>false</code>.
+   * 
+   * @param pointerEvents <code>true</code> to use Pointer Events
+   */
+  void setBehaviorPointerEvents(boolean pointerEvents);
+
   /**
    * Set whether or not to scroll containing panels and the browser window during drag operations in
    * order to keep the draggable widgets visible. The default is <code>true</code>.
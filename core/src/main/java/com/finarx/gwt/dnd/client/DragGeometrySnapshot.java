@@ -0,0 +1,235 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client;
+
+import com.finarx.gwt.dnd.client.util.Area;
+import com.finarx.gwt.dnd.client.util.LayoutCache;
+import com.google.gwt.user.client.ui.Widget;
+
+/**
+ * Geometry of the current drag operation which does not change from one pointer move to the next:
+ * the size of the draggable, the offset and client size of the boundary panel, and the area and
+ * offset of the engaged drop target. It is measured when the drag starts and again whenever the drag
+ * controller's cache invalidation policy refreshes the drop target cache, so that drag and drop
+ * controllers need not read layout on every move.
+ *
+ * @see DragContext#getGeometrySnapshot()
+ */
+public final class DragGeometrySnapshot {
+
+  /**
+   * The drop target whose area is remembered, or <code>null</code>.
+   */
+  private Widget areaTarget;
+
+  private int boundaryClientHeight;
+
+  private int boundaryClientWidth;
+
+  private int boundaryOffsetX;
+
+  private int boundaryOffsetY;
+
+  private int draggableHeight;
+
+  private int draggableWidth;
+
+  /**
+   * Incremented whenever the snapshot is measured again.
+   */
+  private int generation;
+
+  /**
+   * The drop target whose offset is remembered, or <code>null</code>.
+   */
+  private Widget target;
+
+  private Area targetArea;
+
+  /**
+   * The {@link LayoutCache#getScrollGeneration() scroll generation} of the target area.
+   */
+  private int targetAreaScrollGeneration;
+
+  private int targetOffsetX;
+
+  private int targetOffsetY;
+
+  /**
+   * The {@link LayoutCache#getScrollGeneration() scroll generation} of the target offset.
+   */
+  private int targetScrollGeneration;
+
+  DragGeometrySnapshot() {
+  }
+
+  /**
+   * Get the client height of the boundary panel.
+   *
+   * @return the height in pixels
+   */
+  public int getBoundaryClientHeight() {
+    return boundaryClientHeight;
+  }
+
+  /**
+   * Get the client width of the boundary panel.
+   *
+   * @return the width in pixels
+   */
+  public int getBoundaryClientWidth() {
+    return boundaryClientWidth;
+  }
+
+  /**
+   * Get the document x coordinate of the origin of the boundary panel's absolutely positioned
+   * children.
+   *
+   * @return the x coordinate in pixels
+   */
+  public int getBoundaryOffsetX() {
+    return boundaryOffsetX;
+  }
+
+  /**
+   * Get the document y coordinate of the origin of the boundary panel's absolutely positioned
+   * children.
+   *
+   * @return the y coordinate in pixels
+   */
+  public int getBoundaryOffsetY() {
+    return boundaryOffsetY;
+  }
+
+  /**
+   * Get the offset height of the draggable.
+   *
+   * @return the height in pixels
+   */
+  public int getDraggableHeight() {
+    return draggableHeight;
+  }
+
+  /**
+   * Get the offset width of the draggable.
+   *
+   * @return the width in pixels
+   */
+  public int getDraggableWidth() {
+    return draggableWidth;
+  }
+
+  /**
+   * Get a number which changes whenever the snapshot is measured again, so that callers may keep
+   * measurements of their own until then.
+   *
+   * @return the current generation
+   */
+  public int getGeneration() {
+    return generation;
+  }
+
+  /**
+   * Get the area of the engaged drop target, as measured by the drag controller to find it, so
+   * that its drop controller need not measure it again.
+   *
+   * @param target the drop target
+   * @return the area, or <code>null</code> if it is not known for the drop target, or something
+   *         has been scrolled or the snapshot measured again since
+   */
+  public Area getTargetArea(Widget target) {
+    if (areaTarget != target || targetAreaScrollGeneration != LayoutCache.getScrollGeneration()) {
+      return null;
+    }
+    return targetArea;
+  }
+
+  /**
+   * Get the x offset remembered by {@link #setTargetOffset(Widget, int, int)}.
+   *
+   * @return the x offset in pixels
+   */
+  public int getTargetOffsetX() {
+    return targetOffsetX;
+  }
+
+  /**
+   * Get the y offset remembered by {@link #setTargetOffset(Widget, int, int)}.
+   *
+   * @return the y offset in pixels
+   */
+  public int getTargetOffsetY() {
+    return targetOffsetY;
+  }
+
+  /**
+   * Determine whether the offset of a drop target is remembered and still valid, that is the
+   * snapshot has not been measured again and nothing has been scrolled since it was set.
+   *
+   * @param target the drop target
+   * @return <code>true</code> if {@link #getTargetOffsetX()} and {@link #getTargetOffsetY()}
+   *         apply to the drop target
+   */
+  public boolean hasTargetOffset(Widget target) {
+    return this.target == target && targetScrollGeneration == LayoutCache.getScrollGeneration();
+  }
+
+  /**
+   * Remember the offset of the engaged drop target, as measured by its drop controller, until the
+   * snapshot is measured again or something is scrolled.
+   *
+   * @param target the drop target
+   * @param offsetX the x offset in pixels
+   * @param offsetY the y offset in pixels
+   */
+  public void setTargetOffset(Widget target, int offsetX, int offsetY) {
+    this.target = target;
+    targetOffsetX = offsetX;
+    targetOffsetY = offsetY;
+    targetScrollGeneration = LayoutCache.getScrollGeneration();
+  }
+
+  /**
+   * Shift the boundary offset, after a container of the boundary panel was scrolled.
+   */
+  void setBoundaryOffset(int offsetX, int offsetY) {
+    boundaryOffsetX = offsetX;
+    boundaryOffsetY = offsetY;
+  }
+
+  /**
+   * Remember the area of the drop target being engaged, or forget it if <code>null</code>.
+   */
+  void setTargetArea(Widget target, Area area) {
+    areaTarget = area == null ? null : target;
+    targetArea = area;
+    targetAreaScrollGeneration = LayoutCache.getScrollGeneration();
+  }
+
+  /**
+   * Record a new measurement, forgetting the target area and offset.
+   */
+  void update(int draggableWidth, int draggableHeight, int boundaryOffsetX, int boundaryOffsetY,
+      int boundaryClientWidth, int boundaryClientHeight) {
+    this.draggableWidth = draggableWidth;
+    this.draggableHeight = draggableHeight;
+    this.boundaryOffsetX = boundaryOffsetX;
+    this.boundaryOffsetY = boundaryOffsetY;
+    this.boundaryClientWidth = boundaryClientWidth;
+    this.boundaryClientHeight = boundaryClientHeight;
+    areaTarget = null;
+    target = null;
+    generation++;
+  }
+}
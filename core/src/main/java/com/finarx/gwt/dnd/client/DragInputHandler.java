@@ -0,0 +1,47 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client;
+
+import com.google.gwt.user.client.ui.Widget;
+
+/**
+ * Implementation helper interface for the classes which translate user input on drag handles into
+ * drag operations for a given {@link DragController}.
+ */
+interface DragInputHandler {
+
+  /**
+   * Start listening for input on the drag handle.
+   *
+   * @param draggable the widget to be made draggable
+   * @param dragHandle the widget by which the draggable can be dragged
+   */
+  void makeDraggable(Widget draggable, Widget dragHandle);
+
+  /**
+   * Stop listening for input on the drag handle.
+   *
+   * @param dragHandle the drag handle previously passed to {@link #makeDraggable(Widget, Widget)}
+   */
+  void makeNotDraggable(Widget dragHandle);
+
+  /**
+   * Switch between listening on each drag handle and a single delegated listener on the boundary
+   * panel. Must be called before any drag handles are registered.
+   *
+   * @param delegatedDragHandles the drag handle registrations to resolve input events against, or
+   *          <code>null</code> to listen on each drag handle
+   */
+  void setDelegatedDragHandles(DelegatedDragHandles delegatedDragHandles);
+}
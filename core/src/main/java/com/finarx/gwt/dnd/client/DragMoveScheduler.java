@@ -0,0 +1,75 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client;
+
+import com.google.gwt.animation.client.AnimationScheduler;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationCallback;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationHandle;
+
+/**
+ * Implementation helper class which forwards pointer movement to
+ * {@link DragController#dragMove()}, either immediately or at most once per animation frame when
+ * {@link DragController#getBehaviorCoalesceMoves()} is enabled.
+ */
+class DragMoveScheduler implements AnimationCallback {
+
+  private final DragContext context;
+
+  /**
+   * Handle of the pending animation frame request or <code>null</code> when no move is pending.
+   */
+  private AnimationHandle pendingMove;
+
+  DragMoveScheduler(DragContext context) {
+    this.context = context;
+  }
+
+  /**
+   * Drop any pending move without calling {@link DragController#dragMove()}.
+   */
+  void cancel() {
+    if (pendingMove != null) {
+      pendingMove.cancel();
+      pendingMove = null;
+    }
+  }
+
+  @Override
+  public void execute(double timestamp) {
+    pendingMove = null;
+    if (context.draggable != null) {
+      context.dragController.dragMove();
+    }
+  }
+
+  /**
+   * Run {@link DragController#dragMove()} synchronously, discarding any pending frame, so that the
+   * drag controller sees the latest pointer position before the drop.
+   */
+  void flush() {
+    cancel();
+    context.dragController.dragMove();
+  }
+
+  /**
+   * Called after the drag context has been updated with the latest pointer position.
+   */
+  void moved() {
+    if (!context.dragController.getBehaviorCoalesceMoves()) {
+      context.dragController.dragMove();
+    } else if (pendingMove == null) {
+      pendingMove = AnimationScheduler.get().requestAnimationFrame(this);
+    }
+  }
+}
@@ -14,19 +14,27 @@
 package com.finarx.gwt.dnd.client;
 
 import com.finarx.gwt.dnd.client.drop.DropController;
-import com.finarx.gwt.dnd.client.util.CoordinateLocation;
+import com.finarx.gwt.dnd.client.drop.HasDropEligibility;
+import com.finarx.gwt.dnd.client.util.CoordinateArea;
 import com.finarx.gwt.dnd.client.util.DOMUtil;
+import com.google.gwt.dom.client.Node;
 import com.google.gwt.user.client.DOM;
 import com.google.gwt.user.client.Element;
+import com.google.gwt.user.client.Window;
 import com.google.gwt.user.client.ui.Panel;
 import com.google.gwt.user.client.ui.Widget;
 
 import com.finarx.gwt.dnd.client.util.Area;
+import com.finarx.gwt.dnd.client.util.AreaGridIndex;
 import com.finarx.gwt.dnd.client.util.Location;
+import com.finarx.gwt.dnd.client.util.MutableArea;
+import com.finarx.gwt.dnd.client.util.MutableLocation;
 import com.finarx.gwt.dnd.client.util.WidgetArea;
+import com.finarx.gwt.dnd.client.util.impl.BoundingClientRect;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 
 /**
  * Package private helper implementation class for {@link AbstractDragController} to track all
@@ -36,25 +44,47 @@ class DropControllerCollection {
 
   protected static class Candidate implements Comparable<Candidate> {
 
+    /**
+     * Number of ancestors of the drop target element, computed once so that sorting does not
+     * need to walk the DOM.
+     */
+    private final int depth;
+
+    /**
+     * Whether the drop target may have moved or resized since {@link #targetArea} was measured.
+     */
+    private boolean dirty;
+
     private final DropController dropController;
 
-    private final Area targetArea;
+    /**
+     * Position of the drop controller in registration order.
+     */
+    private final int order;
+
+    private Area targetArea;
 
-    Candidate(DropController dropController) {
+    /**
+     * Create a candidate, fully measuring its drop target.
+     */
+    Candidate(DropController dropController, int order) {
       this.dropController = dropController;
-      Widget target = dropController.getDropTarget();
-      if (!target.isAttached()) {
-        throw new IllegalStateException(
-            "Unattached drop target. You must call DragController#unregisterDropController for all drop targets not attached to the DOM.");
-      }
-      targetArea = new WidgetArea(target, null);
+      this.order = order;
+      measure();
+      depth = getDepth(getDropTarget().getElement());
     }
 
+    /**
+     * Order candidates by DOM depth. Since an element is always deeper than its ancestors, drop
+     * targets sort after the drop targets containing them. Candidates at equal depth keep their
+     * registration order.
+     */
     @Override
     public int compareTo(Candidate other) {
-      Element myElement = getDropTarget().getElement();
-      Element otherElement = other.getDropTarget().getElement();
-      return compareElement(myElement, otherElement);
+      if (depth != other.depth) {
+        return depth < other.depth ? -1 : 1;
+      }
+      return order < other.order ? -1 : order == other.order ? 0 : 1;
     }
 
     @Override
@@ -79,34 +109,259 @@ class DropControllerCollection {
       return targetArea;
     }
 
-    private int compareElement(Element myElement, Element otherElement) {
-      if (myElement == otherElement) {
-        return 0;
-      } else if (DOM.isOrHasChild(myElement, otherElement)) {
-        return -1;
-      } else if (DOM.isOrHasChild(otherElement, myElement)) {
-        return 1;
-      } else {
-        // check parent ensuring global candidate sorting is correct
-        Element myParentElement = myElement.getParentElement().cast();
-        Element otherParentElement = otherElement.getParentElement().cast();
-        if (myParentElement != null && otherParentElement != null) {
-          return compareElement(myParentElement, otherParentElement);
-        }
-        return 0;
+    void measure() {
+      Widget target = dropController.getDropTarget();
+      if (!target.isAttached()) {
+        throw new IllegalStateException(
+            "Unattached drop target. You must call DragController#unregisterDropController for all drop targets not attached to the DOM.");
       }
+      targetArea = new WidgetArea(target, null);
+      dirty = false;
     }
+
+    /**
+     * Shift the target area, without measuring, by the distance its drop target moved.
+     */
+    void translate(int offsetX, int offsetY) {
+      targetArea = new CoordinateArea(targetArea.getLeft() + offsetX, targetArea.getTop() + offsetY,
+          targetArea.getRight() + offsetX, targetArea.getBottom() + offsetY);
+    }
+
+    private int getDepth(Element elem) {
+      int result = 0;
+      for (Node parent = elem.getParentNode(); parent != null; parent = parent.getParentNode()) {
+        result++;
+      }
+      return result;
+    }
+  }
+
+  /**
+   * An eligible drop controller whose drop target was away from the viewport, so that it was not
+   * made a candidate. Only the rough page area of its drop target is known, ignoring clipping by
+   * scrolling ancestors.
+   */
+  private static class CulledDropTarget {
+
+    final MutableArea area = new MutableArea();
+
+    final DropController dropController;
+
+    /**
+     * Position of the drop controller in registration order.
+     */
+    final int order;
+
+    CulledDropTarget(DropController dropController, int order) {
+      this.dropController = dropController;
+      this.order = order;
+    }
+  }
+
+  /**
+   * Expando property which excludes an element, and its descendants, from element-from-point hit
+   * testing.
+   */
+  private static final String HIT_TEST_IGNORED = "__gwtDndHitTestIgnored";
+
+  /**
+   * Exclude an element, and its descendants, from element-from-point hit testing, for example
+   * because it is the movable panel or an input capturing overlay.
+   *
+   * @param elem the element to ignore
+   */
+  static void setHitTestIgnored(Element elem) {
+    elem.setPropertyBoolean(HIT_TEST_IGNORED, true);
   }
 
-  private final ArrayList<DropController> dropControllerList;
+  /**
+   * Determine whether the browser supports element-from-point hit testing.
+   *
+   * @return <code>true</code> if <code>document.elementsFromPoint</code> is available
+   */
+  static native boolean isElementFromPointSupported()
+  /*-{
+    return !!$doc.elementsFromPoint;
+  }-*/;
+
+  /**
+   * Determine whether an element follows another in document order, which includes being one of
+   * its descendants.
+   */
+  private static native boolean follows(Element elem, Element other)
+  /*-{
+    return (other.compareDocumentPosition(elem) & $wnd.Node.DOCUMENT_POSITION_FOLLOWING) != 0;
+  }-*/;
+
+  /**
+   * Find the topmost element at the provided client coordinates which is not hit test ignored.
+   */
+  private static native Element getElementFromPoint(int clientX, int clientY)
+  /*-{
+    var elems = $doc.elementsFromPoint(clientX, clientY);
+    outer: for (var i = 0; i < elems.length; i++) {
+      for (var elem = elems[i]; elem != null; elem = elem.parentElement) {
+        if (elem[@com.finarx.gwt.dnd.client.DropControllerCollection::HIT_TEST_IGNORED]) {
+          continue outer;
+        }
+      }
+      return elems[i];
+    }
+    return null;
+  }-*/;
+
+  /**
+   * The boundary panel area as of the last refresh.
+   */
+  private Area boundaryArea;
+
+  /**
+   * The boundary panel element at which element-from-point lookups stop.
+   */
+  private Element boundaryElement;
+
+  /**
+   * Incremented by each {@link #resetCache(Panel, DragContext)}.
+   */
+  private int cacheGeneration;
+
+  /**
+   * Spatial index over the target areas of {@link #sortedCandidates}.
+   */
+  private AreaGridIndex candidateIndex;
+
+  /**
+   * Candidates keyed by drop target element, used to apply invalidations.
+   */
+  private HashMap<Element, Candidate> candidateMap = new HashMap<Element, Candidate>();
+
+  /**
+   * All candidates which are not part of the current draggable, in sorted order, including those
+   * outside the boundary panel.
+   */
+  private Candidate[] candidates = new Candidate[0];
+
+  /**
+   * Eligible drop controllers which are not candidates because their drop targets are away from
+   * the viewport, in no particular order.
+   */
+  private final ArrayList<CulledDropTarget> culledDropTargets = new ArrayList<CulledDropTarget>();
+
+  /**
+   * Whether a container of culled drop targets scrolled by other means than auto scrolling, so
+   * that their rough areas must be located again.
+   */
+  private boolean culledMoved;
+
+  /**
+   * Number of candidates currently marked dirty.
+   */
+  private int dirtyCount;
+
+  /**
+   * Reused for the pointer location while debugging.
+   */
+  private final MutableLocation debugLocation = new MutableLocation();
+
+  /**
+   * The drag controller's own boundary drop controller, which is not part of the registry.
+   */
+  private final DropController boundaryDropController;
+
+  /**
+   * Cached {@link HasDropEligibility#accepts(DragContext)} results for the current drag operation.
+   */
+  private HashMap<DropController, Boolean> dropEligibilityMap =
+      new HashMap<DropController, Boolean>();
+
+  /**
+   * Hash of the indexed candidate areas.
+   */
+  private int geometryHash;
+
+  /**
+   * Eligible drop controllers keyed by drop target element when using element-from-point hit
+   * testing.
+   */
+  private HashMap<Element, DropController> dropTargetMap = new HashMap<Element, DropController>();
+
+  /**
+   * Whether drop targets are found via the element under the pointer rather than cached areas.
+   */
+  private boolean elementFromPoint;
+
+  private final DropTargetRegistry registry;
+
+  /**
+   * The registry generation as of the last {@link #resetCache(Panel, DragContext)}.
+   */
+  private int registryGeneration = -1;
 
   private Candidate[] sortedCandidates = null;
 
+  /**
+   * Distance in pixels around the viewport within which candidates are measured, or
+   * <code>-1</code> to measure all candidates.
+   */
+  private int viewportCullingMargin = -1;
+
+  /**
+   * Distance in pixels by which the culling margin was last widened ahead of auto scrolling.
+   */
+  private int viewportLookahead;
+
+  /**
+   * Reused while roughly locating drop targets.
+   */
+  private final MutableArea roughArea = new MutableArea();
+
+  /**
+   * The window scroll position for which culled drop targets were last considered.
+   */
+  private int viewportScrollLeft;
+
+  private int viewportScrollTop;
+
+  /**
+   * Reused for the viewport, which is only needed while candidates are compared against it.
+   */
+  private final MutableArea viewport = new MutableArea();
+
   /**
    * Default constructor.
    */
-  DropControllerCollection(ArrayList<DropController> dropControllerList) {
-    this.dropControllerList = dropControllerList;
+  DropControllerCollection(DropTargetRegistry registry, DropController boundaryDropController) {
+    this.registry = registry;
+    this.boundaryDropController = boundaryDropController;
+  }
+
+  /**
+   * Get a number which changes with each {@link #resetCache(Panel, DragContext)}, and whenever
+   * culled drop targets become candidates, after which the set of candidates differs.
+   *
+   * @return the cache generation
+   */
+  int getCacheGeneration() {
+    return cacheGeneration;
+  }
+
+  /**
+   * Get the drop target elements of all candidates.
+   *
+   * @return the drop target elements
+   */
+  Iterable<Element> getCandidateElements() {
+    return candidateMap.keySet();
+  }
+
+  /**
+   * Get a hash of the indexed drop target areas, which allows callers to detect whether the drop
+   * target geometry changed between cache refreshes.
+   *
+   * @return the geometry hash
+   */
+  int getGeometryHash() {
+    return geometryHash;
   }
 
   /**
@@ -119,55 +374,467 @@ class DropControllerCollection {
    *         applicable
    */
   DropController getIntersectDropController(int x, int y) {
-    Location location = new CoordinateLocation(x, y);
+    if (elementFromPoint) {
+      return getDropControllerFromPoint(x, y);
+    }
     if (DOMUtil.DEBUG) {
+      // scan linearly so that every examined drop target can be colored
+      Location location = debugLocation.set(x, y);
       for (int i = sortedCandidates.length - 1; i >= 0; i--) {
         Candidate candidate = sortedCandidates[i];
         DOMUtil.debugWidgetWithColor(candidate.getDropTarget(), "blue");
       }
-    }
-    for (int i = sortedCandidates.length - 1; i >= 0; i--) {
-      Candidate candidate = sortedCandidates[i];
-      Area targetArea = candidate.getTargetArea();
-      if (targetArea.intersects(location)) {
-        if (DOMUtil.DEBUG) {
+      for (int i = sortedCandidates.length - 1; i >= 0; i--) {
+        Candidate candidate = sortedCandidates[i];
+        Area targetArea = candidate.getTargetArea();
+        if (targetArea.intersects(location)) {
           DOMUtil.debugWidgetWithColor(candidate.getDropTarget(), "green");
+          return candidate.getDropController();
         }
-        return candidate.getDropController();
-      }
-      if (DOMUtil.DEBUG) {
         DOMUtil.debugWidgetWithColor(candidate.getDropTarget(), "red");
       }
+      return null;
     }
-    return null;
+    int i = candidateIndex.findLast(x, y);
+    return i == -1 ? null : sortedCandidates[i].getDropController();
+  }
+
+  /**
+   * Get the cached area of a drop target, as used for hit testing.
+   *
+   * @param dropTarget the drop target
+   * @return the area, or <code>null</code> if the drop target is not a candidate, or its area is
+   *         not current
+   */
+  Area getTargetArea(Widget dropTarget) {
+    Candidate candidate = candidateMap.get(dropTarget.getElement());
+    if (candidate == null || candidate.dirty) {
+      return null;
+    }
+    return candidate.getTargetArea();
+  }
+
+  /**
+   * Determine whether drop controllers were registered or unregistered since the last
+   * {@link #resetCache(Panel, DragContext)}.
+   *
+   * @return <code>true</code> if the cache no longer reflects the registered drop controllers
+   */
+  boolean isRegistryChanged() {
+    return registryGeneration != registry.getGeneration();
+  }
+
+  /**
+   * Mark the candidate whose drop target is the given element as needing to be re-measured by
+   * {@link #refreshInvalidated(Panel)}.
+   *
+   * @param dropTargetElement the drop target element whose geometry may have changed
+   * @return <code>true</code> if the element is a candidate drop target
+   */
+  boolean invalidate(Element dropTargetElement) {
+    Candidate candidate = candidateMap.get(dropTargetElement);
+    if (candidate == null) {
+      return false;
+    }
+    markDirty(candidate);
+    return true;
+  }
+
+  /**
+   * Mark all candidates inside the given element, for example a scrolled container, as needing to
+   * be re-measured by {@link #refreshInvalidated(Panel)}.
+   *
+   * @param container the element whose descendants may have moved
+   */
+  void invalidateDescendants(Element container) {
+    for (Candidate candidate : candidates) {
+      if (!candidate.dirty && container.isOrHasChild(candidate.getDropTarget().getElement())) {
+        markDirty(candidate);
+      }
+    }
+    for (int i = 0; i < culledDropTargets.size() && !culledMoved; i++) {
+      culledMoved = container.isOrHasChild(
+          culledDropTargets.get(i).dropController.getDropTarget().getElement());
+    }
+  }
+
+  /**
+   * Mark all candidates inside or after the given element in document order as needing to be
+   * re-measured by {@link #refreshInvalidated(Panel)}, for example after the element was resized or
+   * a positioner was inserted into it, either of which may move everything laid out after it.
+   *
+   * @param elem the element whose descendants and following elements may have moved
+   */
+  void invalidateFollowing(Element elem) {
+    for (Candidate candidate : candidates) {
+      if (!candidate.dirty && follows(candidate.getDropTarget().getElement(), elem)) {
+        markDirty(candidate);
+      }
+    }
+  }
+
+  /**
+   * Re-measure only the candidates which were invalidated since the last refresh, and locate culled
+   * drop targets again if they may have been scrolled into range, then re-filter and re-index all
+   * candidates. The DOM order of candidates is unaffected by geometry changes, so no re-sorting
+   * is needed except for culled drop targets which became candidates.
+   *
+   * @param boundaryPanel boundary area for drop target eligibility considerations
+   * @return <code>true</code> if any candidate was re-measured
+   */
+  boolean refreshInvalidated(Panel boundaryPanel) {
+    if (dirtyCount == 0 && !culledMoved) {
+      return false;
+    }
+    for (Candidate candidate : candidates) {
+      if (candidate.dirty) {
+        candidate.measure();
+      }
+    }
+    dirtyCount = 0;
+    if (culledMoved) {
+      culledMoved = false;
+      viewportScrollLeft = Window.getScrollLeft();
+      viewportScrollTop = Window.getScrollTop();
+      for (int i = 0; i < culledDropTargets.size(); i++) {
+        CulledDropTarget culledDropTarget = culledDropTargets.get(i);
+        locate(culledDropTarget.dropController.getDropTarget().getElement(),
+            culledDropTarget.area);
+      }
+      uncull(getViewport(viewportCullingMargin + viewportLookahead));
+    }
+    boundaryArea = new WidgetArea(boundaryPanel, null);
+    index();
+    return true;
   }
 
   /**
-   * Cache a list of eligible drop controllers, sorted by relative DOM positions of their respective
-   * drop targets. Called at the beginning of each drag operation, or whenever drop target
-   * eligibility has changed while dragging.
+   * Cache a list of eligible drop controllers, sorted by the DOM depth of their respective drop
+   * targets, and index their areas for hit testing. Called at the beginning of each drag
+   * operation, or whenever drop target eligibility has changed while dragging.
    * 
    * @param boundaryPanel boundary area for drop target eligibility considerations
    * @param context the current drag context
    */
   void resetCache(Panel boundaryPanel, DragContext context) {
     ArrayList<Candidate> list = new ArrayList<Candidate>();
+    cacheGeneration++;
+    candidateMap.clear();
+    dropTargetMap.clear();
+    dirtyCount = 0;
+    boundaryElement = boundaryPanel.getElement();
+    registryGeneration = registry.getGeneration();
 
+    boundaryArea = null;
+    culledDropTargets.clear();
+    culledMoved = false;
+    Area cullingViewport = null;
     if (context.draggable != null) {
-      WidgetArea boundaryArea = new WidgetArea(boundaryPanel, null);
-      for (DropController dropController : dropControllerList) {
-        Candidate candidate = new Candidate(dropController);
-        Widget dropTarget = candidate.getDropTarget();
-        if (DOM.isOrHasChild(context.draggable.getElement(), dropTarget.getElement())) {
-          continue;
+      if (!elementFromPoint) {
+        boundaryArea = new WidgetArea(boundaryPanel, null);
+        if (viewportCullingMargin >= 0) {
+          viewportScrollLeft = Window.getScrollLeft();
+          viewportScrollTop = Window.getScrollTop();
+          cullingViewport = getViewport(viewportCullingMargin + viewportLookahead);
         }
-        if (candidate.getTargetArea().intersects(boundaryArea)) {
-          list.add(candidate);
+      }
+      int order = 0;
+      addCandidate(boundaryDropController, context, list, order++, cullingViewport);
+      for (DropController dropController : registry) {
+        addCandidate(dropController, context, list, order++, cullingViewport);
+      }
+    }
+
+    candidates = list.toArray(new Candidate[list.size()]);
+    Arrays.sort(candidates);
+    index();
+  }
+
+  /**
+   * Forget the drop eligibility of all drop controllers, so that it is determined afresh for the
+   * next drag operation.
+   */
+  void resetDropEligibility() {
+    dropEligibilityMap.clear();
+  }
+
+  /**
+   * Choose between hit testing against cached drop target areas and looking up the element under
+   * the pointer. Takes effect at the next {@link #resetCache(Panel, DragContext)}.
+   *
+   * @param elementFromPoint <code>true</code> to use element-from-point hit testing
+   */
+  void setElementFromPoint(boolean elementFromPoint) {
+    this.elementFromPoint = elementFromPoint;
+  }
+
+  /**
+   * Set the distance around the viewport within which drop targets are measured at the next
+   * {@link #resetCache(Panel, DragContext)}. Drop targets further away are only roughly located,
+   * and do not become candidates until scrolling brings them into range.
+   *
+   * @param viewportCullingMargin margin in pixels, or <code>-1</code> to measure all drop targets
+   */
+  void setViewportCullingMargin(int viewportCullingMargin) {
+    this.viewportCullingMargin = viewportCullingMargin;
+  }
+
+  /**
+   * Update the cached areas of all candidates inside a container which scrolled, without measuring
+   * them, then re-index all candidates. Candidates well inside the container's client area are
+   * shifted by the distance their content moved; those touching its edges before or after the
+   * shift are clipped differently, and are re-measured instead. Culled drop targets inside the
+   * container are shifted, too, and become candidates if they have come into range.
+   *
+   * @param container the element which scrolled
+   * @param clientArea the client area of the container, in the coordinates of the cached areas
+   * @param offsetX the horizontal distance the content of the container moved
+   * @param offsetY the vertical distance the content of the container moved
+   * @param boundaryPanel boundary area for drop target eligibility considerations
+   */
+  void translateDescendants(Element container, Area clientArea, int offsetX, int offsetY,
+      Panel boundaryPanel) {
+    for (Candidate candidate : candidates) {
+      Element dropTargetElement = candidate.getDropTarget().getElement();
+      if (candidate.dirty || dropTargetElement == container
+          || !container.isOrHasChild(dropTargetElement)) {
+        continue;
+      }
+      Area area = candidate.getTargetArea();
+      if (isInside(area, clientArea, 0, 0) && isInside(area, clientArea, offsetX, offsetY)) {
+        candidate.translate(offsetX, offsetY);
+      } else {
+        markDirty(candidate);
+      }
+    }
+    if (!culledDropTargets.isEmpty()) {
+      boolean translated = false;
+      for (int i = 0; i < culledDropTargets.size(); i++) {
+        CulledDropTarget culledDropTarget = culledDropTargets.get(i);
+        if (container.isOrHasChild(culledDropTarget.dropController.getDropTarget().getElement())) {
+          MutableArea area = culledDropTarget.area;
+          area.set(area.getLeft() + offsetX, area.getTop() + offsetY, area.getRight() + offsetX,
+              area.getBottom() + offsetY);
+          translated = true;
         }
       }
+      if (translated) {
+        uncull(getViewport(viewportCullingMargin + viewportLookahead));
+      }
     }
+    if (!refreshInvalidated(boundaryPanel)) {
+      boundaryArea = new WidgetArea(boundaryPanel, null);
+      index();
+    }
+  }
+
+  /**
+   * Make candidates of any culled drop targets which the window has scrolled into range, or which
+   * a wider lookahead now reaches. Drop target page coordinates do not change when the window
+   * scrolls, so only the rough areas of culled drop targets are compared against the new viewport.
+   *
+   * @param lookahead distance in pixels by which to widen the margin, such as the distance auto
+   *          scrolling is about to cover
+   * @return <code>true</code> if any culled drop targets became candidates
+   */
+  boolean updateViewport(int lookahead) {
+    if (culledDropTargets.isEmpty()) {
+      viewportLookahead = lookahead;
+      return false;
+    }
+    int scrollLeft = Window.getScrollLeft();
+    int scrollTop = Window.getScrollTop();
+    if (scrollLeft == viewportScrollLeft && scrollTop == viewportScrollTop
+        && lookahead <= viewportLookahead) {
+      return false;
+    }
+    viewportScrollLeft = scrollLeft;
+    viewportScrollTop = scrollTop;
+    viewportLookahead = lookahead;
+    if (!uncull(getViewport(viewportCullingMargin + lookahead))) {
+      return false;
+    }
+    index();
+    return true;
+  }
+
+  /**
+   * Find the drop target containing the topmost element under the pointer, which is not part of
+   * the movable panel or another hit test ignored element, stopping at the boundary panel.
+   */
+  private DropController getDropControllerFromPoint(int x, int y) {
+    Element elem = getElementFromPoint(x - Window.getScrollLeft(), y - Window.getScrollTop());
+    while (elem != null) {
+      DropController dropController = dropTargetMap.get(elem);
+      if (dropController != null) {
+        return dropController;
+      }
+      if (elem == boundaryElement) {
+        return null;
+      }
+      elem = elem.getParentElement().cast();
+    }
+    return null;
+  }
 
+  /**
+   * Select the measured candidates which intersect the boundary panel, preserving their sorted order, and
+   * index their areas for hit testing.
+   */
+  private void index() {
+    ArrayList<Candidate> list = new ArrayList<Candidate>();
+    for (Candidate candidate : candidates) {
+      if (candidate.getTargetArea().intersects(boundaryArea)) {
+        list.add(candidate);
+      }
+    }
     sortedCandidates = list.toArray(new Candidate[list.size()]);
-    Arrays.sort(sortedCandidates);
+
+    Area[] areas = new Area[sortedCandidates.length];
+    int hash = sortedCandidates.length;
+    for (int i = 0; i < sortedCandidates.length; i++) {
+      Area area = sortedCandidates[i].getTargetArea();
+      areas[i] = area;
+      hash = (((hash * 31 + area.getLeft()) * 31 + area.getTop()) * 31 + area.getRight()) * 31
+          + area.getBottom();
+    }
+    geometryHash = hash;
+    candidateIndex = new AreaGridIndex(areas);
+  }
+
+  /**
+   * Add an eligible drop controller, which is not part of the draggable, as a candidate, or just to
+   * the element lookup map when no geometry is needed.
+   */
+  private void addCandidate(DropController dropController, DragContext context,
+      ArrayList<Candidate> list, int order, Area cullingViewport) {
+    Element dropTargetElement = dropController.getDropTarget().getElement();
+    if (DOM.isOrHasChild(context.draggable.getElement(), dropTargetElement)
+        || !isEligible(dropController, context)) {
+      return;
+    }
+    if (elementFromPoint) {
+      dropTargetMap.put(dropTargetElement, dropController);
+    } else if (cullingViewport == null || !cull(dropController, order, cullingViewport)) {
+      Candidate candidate = new Candidate(dropController, order);
+      list.add(candidate);
+      candidateMap.put(dropTargetElement, candidate);
+    }
+  }
+
+  /**
+   * Roughly locate a drop target, with a single layout query, and set it aside as culled if it
+   * lies outside the culling viewport.
+   *
+   * @return <code>true</code> if the drop target was culled
+   */
+  private boolean cull(DropController dropController, int order, Area cullingViewport) {
+    Widget target = dropController.getDropTarget();
+    if (!target.isAttached()) {
+      // the candidate reports unattached drop targets
+      return false;
+    }
+    locate(target.getElement(), roughArea);
+    if (roughArea.intersects(cullingViewport)) {
+      return false;
+    }
+    CulledDropTarget culledDropTarget = new CulledDropTarget(dropController, order);
+    culledDropTarget.area.set(roughArea.getLeft(), roughArea.getTop(), roughArea.getRight(),
+        roughArea.getBottom());
+    culledDropTargets.add(culledDropTarget);
+    return true;
+  }
+
+  private Area getViewport(int margin) {
+    int left = Window.getScrollLeft();
+    int top = Window.getScrollTop();
+    return viewport.set(left - margin, top - margin, left + Window.getClientWidth() + margin,
+        top + Window.getClientHeight() + margin);
+  }
+
+  /**
+   * Roughly locate an element in page coordinates, ignoring clipping by scrolling ancestors, with a
+   * single layout query where the user agent allows.
+   */
+  private void locate(Element elem, MutableArea area) {
+    if (DOMUtil.isBoundingClientRectSupported()) {
+      BoundingClientRect rect = DOMUtil.getBoundingClientRect(elem);
+      area.set((int) Math.floor(rect.getLeft()) + viewportScrollLeft,
+          (int) Math.floor(rect.getTop()) + viewportScrollTop,
+          (int) Math.ceil(rect.getRight()) + viewportScrollLeft,
+          (int) Math.ceil(rect.getBottom()) + viewportScrollTop);
+    } else {
+      int left = elem.getAbsoluteLeft();
+      int top = elem.getAbsoluteTop();
+      area.set(left, top, left + elem.getOffsetWidth(), top + elem.getOffsetHeight());
+    }
+  }
+
+  /**
+   * Make candidates of the culled drop targets whose rough areas intersect the viewport, keeping
+   * the candidates sorted. The caller re-indexes the candidates.
+   *
+   * @return <code>true</code> if any culled drop targets became candidates
+   */
+  private boolean uncull(Area viewport) {
+    ArrayList<Candidate> list = null;
+    for (int i = culledDropTargets.size() - 1; i >= 0; i--) {
+      CulledDropTarget culledDropTarget = culledDropTargets.get(i);
+      if (culledDropTarget.area.intersects(viewport)) {
+        // the list is unordered, so move the last entry into the gap
+        CulledDropTarget last = culledDropTargets.remove(culledDropTargets.size() - 1);
+        if (last != culledDropTarget) {
+          culledDropTargets.set(i, last);
+        }
+        if (list == null) {
+          list = new ArrayList<Candidate>(Arrays.asList(candidates));
+        }
+        Candidate candidate = new Candidate(culledDropTarget.dropController,
+            culledDropTarget.order);
+        list.add(candidate);
+        candidateMap.put(candidate.getDropTarget().getElement(), candidate);
+      }
+    }
+    if (list == null) {
+      return false;
+    }
+    candidates = list.toArray(new Candidate[list.size()]);
+    Arrays.sort(candidates);
+    cacheGeneration++;
+    return true;
+  }
+
+  /**
+   * Determine whether a drop controller accepts the current drag operation, asking each
+   * {@link HasDropEligibility} drop controller only once per drag operation.
+   */
+  private boolean isEligible(DropController dropController, DragContext context) {
+    if (!(dropController instanceof HasDropEligibility)) {
+      return true;
+    }
+    Boolean eligible = dropEligibilityMap.get(dropController);
+    if (eligible == null) {
+      eligible = ((HasDropEligibility) dropController).accepts(context);
+      dropEligibilityMap.put(dropController, eligible);
+    }
+    return eligible;
+  }
+
+  /**
+   * Determine whether an area, shifted by the given offset, lies strictly inside the client area of
+   * a container, so that the container does not clip it.
+   */
+  private boolean isInside(Area area, Area clientArea, int offsetX, int offsetY) {
+    return area.getLeft() + offsetX > clientArea.getLeft()
+        && area.getTop() + offsetY > clientArea.getTop()
+        && area.getRight() + offsetX < clientArea.getRight()
+        && area.getBottom() + offsetY < clientArea.getBottom();
+  }
+
+  private void markDirty(Candidate candidate) {
+    if (!candidate.dirty) {
+      candidate.dirty = true;
+      dirtyCount++;
+    }
   }
 }
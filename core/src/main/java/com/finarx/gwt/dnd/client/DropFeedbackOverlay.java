@@ -0,0 +1,199 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client;
+
+import com.finarx.gwt.dnd.client.util.Area;
+import com.finarx.gwt.dnd.client.util.DragClientBundle;
+import com.finarx.gwt.dnd.client.util.LayoutScheduler;
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
+import com.google.gwt.dom.client.Style;
+import com.google.gwt.user.client.ui.AbsolutePanel;
+import com.google.gwt.user.client.ui.FlowPanel;
+import com.google.gwt.user.client.ui.SimplePanel;
+
+/**
+ * Layer on the boundary panel in which drop controllers draw their drop feedback, instead of
+ * changing the style or content of their drop targets. Changing a drop target's class forces the
+ * browser to recalculate the style of its whole subtree, and inserting a positioner reflows every
+ * following sibling; the overlay instead positions a few absolutely positioned elements with CSS
+ * transforms, so moving an indicator costs a single style write and no relayout of the page.
+ *
+ * <p> Areas are provided in document coordinates, like those of
+ * {@link com.finarx.gwt.dnd.client.util.WidgetArea} with a <code>null</code> reference, and are
+ * typically taken from geometry the drop controller has already measured. Changes are rendered
+ * when the current {@link LayoutScheduler} frame ends. </p>
+ *
+ * @see PickupDragController#setBehaviorDropFeedbackOverlay(boolean)
+ * @see DragContext#getDropFeedbackOverlay()
+ */
+public final class DropFeedbackOverlay {
+
+  /**
+   * An absolutely positioned element of the overlay, which remembers what was last rendered so
+   * that unchanged properties are not written again.
+   */
+  private static class Indicator {
+
+    Area area;
+
+    private int height = -1;
+
+    private int left;
+
+    private int top;
+
+    private boolean visible;
+
+    final SimplePanel widget = new SimplePanel();
+
+    private int width = -1;
+
+    Indicator(String styleName) {
+      widget.setStyleName(styleName);
+      widget.getElement().getStyle().setDisplay(Style.Display.NONE);
+    }
+
+    void render(int originX, int originY) {
+      Style style = widget.getElement().getStyle();
+      if (area == null) {
+        if (visible) {
+          style.setDisplay(Style.Display.NONE);
+          visible = false;
+        }
+        return;
+      }
+      if (!visible) {
+        style.clearDisplay();
+        visible = true;
+      }
+      int newLeft = area.getLeft() - originX;
+      int newTop = area.getTop() - originY;
+      if (newLeft != left || newTop != top) {
+        left = newLeft;
+        top = newTop;
+        style.setProperty("transform", "translate3d(" + left + "px, " + top + "px, 0px)");
+      }
+      if (area.getWidth() != width) {
+        width = area.getWidth();
+        style.setWidth(width, Style.Unit.PX);
+      }
+      if (area.getHeight() != height) {
+        height = area.getHeight();
+        style.setHeight(height, Style.Unit.PX);
+      }
+    }
+  }
+
+  private final Indicator engage = new Indicator(DragClientBundle.INSTANCE.css().feedbackEngage());
+
+  private final FlowPanel layer = new FlowPanel();
+
+  private final Indicator marker = new Indicator(DragClientBundle.INSTANCE.css().feedbackMarker());
+
+  private int originX;
+
+  private int originY;
+
+  private final ScheduledCommand render = new ScheduledCommand() {
+    @Override
+    public void execute() {
+      renderScheduled = false;
+      engage.render(originX, originY);
+      marker.render(originX, originY);
+    }
+  };
+
+  /**
+   * Whether {@link #render} is pending in the current layout frame.
+   */
+  private boolean renderScheduled;
+
+  DropFeedbackOverlay() {
+    layer.setStyleName(DragClientBundle.INSTANCE.css().feedbackLayer());
+    layer.add(engage.widget);
+    layer.add(marker.widget);
+  }
+
+  /**
+   * Remove the engaged drop target highlight.
+   */
+  public void disengage() {
+    engage.area = null;
+    scheduleRender();
+  }
+
+  /**
+   * Highlight the drop target which is being engaged by the drag operation.
+   *
+   * @param area the area of the drop target in document coordinates
+   */
+  public void engage(Area area) {
+    engage.area = area;
+    scheduleRender();
+  }
+
+  /**
+   * Remove the insertion marker.
+   */
+  public void hideInsertionMarker() {
+    marker.area = null;
+    scheduleRender();
+  }
+
+  /**
+   * Show the insertion marker. The marker for an insertion point between two children is usually a
+   * line, that is an area with a width or height of zero; its thickness is determined by CSS.
+   *
+   * @param area the area of the marker in document coordinates
+   */
+  public void showInsertionMarker(Area area) {
+    marker.area = area;
+    scheduleRender();
+  }
+
+  /**
+   * Add the overlay to the boundary panel, above drop targets and positioners but below the
+   * movable panel.
+   */
+  void attach(AbsolutePanel boundaryPanel) {
+    boundaryPanel.add(layer, 0, 0);
+    DropControllerCollection.setHitTestIgnored(layer.getElement());
+  }
+
+  /**
+   * Remove the overlay from the boundary panel.
+   */
+  void detach() {
+    layer.removeFromParent();
+  }
+
+  /**
+   * Set the document coordinates of the boundary panel's origin, relative to which the overlay
+   * is positioned.
+   */
+  void setOrigin(int originX, int originY) {
+    if (originX != this.originX || originY != this.originY) {
+      this.originX = originX;
+      this.originY = originY;
+      scheduleRender();
+    }
+  }
+
+  private void scheduleRender() {
+    if (!renderScheduled) {
+      renderScheduled = true;
+      LayoutScheduler.mutate(render);
+    }
+  }
+}
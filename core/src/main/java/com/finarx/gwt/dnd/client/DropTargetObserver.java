@@ -0,0 +1,287 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client;
+
+import com.finarx.gwt.dnd.client.util.DragClientBundle;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.user.client.Element;
+
+/**
+ * Implementation helper class which keeps the drop target cache of a {@link PickupDragController}
+ * up to date during a drag operation by observing the DOM, rather than rebuilding it periodically.
+ *
+ * <ul>
+ * <li>A <code>ResizeObserver</code> on each candidate drop target invalidates that candidate and
+ * every candidate after it in document order, which the new size may have moved.</li>
+ * <li>A <code>scroll</code> listener, registered in the capture phase so that it sees scrolling of
+ * any element, invalidates the candidates inside the scrolled element.</li>
+ * <li>A <code>MutationObserver</code> on the boundary panel requests a full rebuild when the DOM
+ * structure changes, except for changes made by the drag operation itself to the movable panel,
+ * positioners and drop feedback overlay. Inserting or removing a positioner invalidates the
+ * candidates inside and after its container in document order, and attribute changes on a drop
+ * target invalidate that candidate and the candidates after it.</li>
+ * <li>Resizing the browser window requests a full rebuild.</li>
+ * </ul>
+ */
+class DropTargetObserver {
+
+  /**
+   * Determine whether the browser supports the observers required by this class.
+   *
+   * @return <code>true</code> if <code>ResizeObserver</code> and <code>MutationObserver</code> are
+   *         available
+   */
+  static native boolean isSupported()
+  /*-{
+    return !!($wnd.ResizeObserver && $wnd.MutationObserver && $wnd.WeakSet);
+  }-*/;
+
+  private final DropControllerCollection dropControllerCollection;
+
+  /**
+   * Whether any candidate was invalidated, or the boundary panel may have moved, since the last
+   * call to {@link #takeInvalidated()}.
+   */
+  private boolean invalidated;
+
+  /**
+   * Native observers and listeners, or <code>null</code> when not started.
+   */
+  private JavaScriptObject observers;
+
+  /**
+   * Whether a full rebuild was requested since the last call to {@link #takeRebuildRequired()}.
+   */
+  private boolean rebuildRequired;
+
+  DropTargetObserver(DropControllerCollection dropControllerCollection) {
+    this.dropControllerCollection = dropControllerCollection;
+  }
+
+  /**
+   * (Re-)observe the size of all current candidate drop targets. Call after each full rebuild of
+   * the drop target cache.
+   */
+  void observeDropTargets() {
+    if (observers == null) {
+      return;
+    }
+    disconnectResizeObserver(observers);
+    for (Element elem : dropControllerCollection.getCandidateElements()) {
+      observeResize(observers, elem);
+    }
+  }
+
+  /**
+   * Start observing.
+   *
+   * @param boundaryElement the boundary panel element
+   * @param movableElement the movable panel element, changes to which are ignored
+   */
+  void start(Element boundaryElement, Element movableElement) {
+    assert observers == null;
+    invalidated = false;
+    rebuildRequired = false;
+    observers = connect(boundaryElement, movableElement,
+        DragClientBundle.INSTANCE.css().positioner(),
+        DragClientBundle.INSTANCE.css().flowPanelPositioner(),
+        DragClientBundle.INSTANCE.css().feedbackLayer());
+    observeDropTargets();
+  }
+
+  /**
+   * Stop observing.
+   */
+  void stop() {
+    if (observers != null) {
+      disconnect(observers);
+      observers = null;
+    }
+  }
+
+  /**
+   * Determine, and reset, whether candidates were invalidated.
+   *
+   * @return <code>true</code> if candidates need to be refreshed
+   */
+  boolean takeInvalidated() {
+    boolean result = invalidated;
+    invalidated = false;
+    return result;
+  }
+
+  /**
+   * Determine, and reset, whether a full rebuild of the drop target cache is required.
+   *
+   * @return <code>true</code> if the cache must be rebuilt
+   */
+  boolean takeRebuildRequired() {
+    boolean result = rebuildRequired;
+    rebuildRequired = false;
+    return result;
+  }
+
+  private native JavaScriptObject connect(Element boundaryElement, Element movableElement,
+      String positionerClassName, String flowPanelPositionerClassName,
+      String feedbackLayerClassName)
+  /*-{
+    var self = this;
+    var positionerSelector = "." + positionerClassName + ", ." + flowPanelPositionerClassName;
+    var selector = positionerSelector + ", ." + feedbackLayerClassName + ", ."
+        + feedbackLayerClassName + " *";
+    var isDragFeedback = function(node) {
+      if (node.nodeType != 1) {
+        node = node.parentNode;
+        if (node == null || node.nodeType != 1) {
+          return false;
+        }
+      }
+      return node == movableElement || movableElement.contains(node) || node.matches(selector)
+          || node.querySelector(selector) != null;
+    };
+    var hasPositioner = function(nodes) {
+      for (var i = 0; i < nodes.length; i++) {
+        if (nodes[i].nodeType == 1 && nodes[i].matches(positionerSelector)) {
+          return true;
+        }
+      }
+      return false;
+    };
+    var isDragFeedbackList = function(nodes) {
+      for (var i = 0; i < nodes.length; i++) {
+        if (!isDragFeedback(nodes[i])) {
+          return false;
+        }
+      }
+      return true;
+    };
+
+    // ResizeObserver reports every element once when it is first observed
+    var seen = new $wnd.WeakSet();
+    var resizeObserver = new $wnd.ResizeObserver($entry(function(entries) {
+      for (var i = 0; i < entries.length; i++) {
+        var target = entries[i].target;
+        if (!seen.has(target)) {
+          seen.add(target);
+        } else {
+          self.@com.finarx.gwt.dnd.client.DropTargetObserver::onResize(Lcom/google/gwt/user/client/Element;)(target);
+        }
+      }
+    }));
+
+    var mutationObserver = new $wnd.MutationObserver($entry(function(records) {
+      for (var i = 0; i < records.length; i++) {
+        var record = records[i];
+        if (record.type == "childList") {
+          if (isDragFeedbackList(record.addedNodes) && isDragFeedbackList(record.removedNodes)) {
+            // unlike the movable panel and overlay, positioners take up space in the layout
+            if (hasPositioner(record.addedNodes) || hasPositioner(record.removedNodes)) {
+              self.@com.finarx.gwt.dnd.client.DropTargetObserver::onPositionerChange(Lcom/google/gwt/user/client/Element;)(record.target);
+            }
+            continue;
+          }
+          self.@com.finarx.gwt.dnd.client.DropTargetObserver::onStructureChange()();
+        } else if (!isDragFeedback(record.target)) {
+          if (record.type == "attributes") {
+            self.@com.finarx.gwt.dnd.client.DropTargetObserver::onAttributeChange(Lcom/google/gwt/user/client/Element;)(record.target);
+          } else {
+            self.@com.finarx.gwt.dnd.client.DropTargetObserver::onStructureChange()();
+          }
+        }
+      }
+    }));
+    mutationObserver.observe(boundaryElement, {
+      attributes : true,
+      attributeFilter : [ "class", "style" ],
+      characterData : true,
+      childList : true,
+      subtree : true
+    });
+
+    var scrollListener = $entry(function(evt) {
+      var target = evt.target;
+      // the drag controller already shifted its cache for auto scrolling
+      if (target && target.nodeType == 1
+          && !target[@com.finarx.gwt.dnd.client.AutoScroller::AUTO_SCROLLED]) {
+        self.@com.finarx.gwt.dnd.client.DropTargetObserver::onScroll(Lcom/google/gwt/user/client/Element;)(target);
+      }
+    });
+    $doc.addEventListener("scroll", scrollListener, true);
+
+    var resizeListener = $entry(function(evt) {
+      self.@com.finarx.gwt.dnd.client.DropTargetObserver::onStructureChange()();
+    });
+    $wnd.addEventListener("resize", resizeListener, false);
+
+    return {
+      resizeObserver : resizeObserver,
+      mutationObserver : mutationObserver,
+      scrollListener : scrollListener,
+      resizeListener : resizeListener
+    };
+  }-*/;
+
+  private native void disconnect(JavaScriptObject observers)
+  /*-{
+    observers.resizeObserver.disconnect();
+    observers.mutationObserver.disconnect();
+    $doc.removeEventListener("scroll", observers.scrollListener, true);
+    $wnd.removeEventListener("resize", observers.resizeListener, false);
+  }-*/;
+
+  private native void disconnectResizeObserver(JavaScriptObject observers)
+  /*-{
+    observers.resizeObserver.disconnect();
+  }-*/;
+
+  private native void observeResize(JavaScriptObject observers, Element elem)
+  /*-{
+    observers.resizeObserver.observe(elem, {
+      box : "border-box"
+    });
+  }-*/;
+
+  private void onAttributeChange(Element elem) {
+    if (dropControllerCollection.invalidate(elem)) {
+      dropControllerCollection.invalidateFollowing(elem);
+      invalidated = true;
+    } else {
+      // style or class changes elsewhere may move any number of drop targets
+      rebuildRequired = true;
+    }
+  }
+
+  private void onPositionerChange(Element container) {
+    dropControllerCollection.invalidate(container);
+    dropControllerCollection.invalidateFollowing(container);
+    invalidated = true;
+  }
+
+  private void onResize(Element elem) {
+    if (dropControllerCollection.invalidate(elem)) {
+      dropControllerCollection.invalidateFollowing(elem);
+      invalidated = true;
+    }
+  }
+
+  private void onScroll(Element elem) {
+    dropControllerCollection.invalidateDescendants(elem);
+    // the boundary panel itself may be inside the scrolled element
+    invalidated = true;
+  }
+
+  private void onStructureChange() {
+    rebuildRequired = true;
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client;
+
+import com.finarx.gwt.dnd.client.drop.DropController;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * Collection of {@link DropController DropControllers}, in registration order, which can be shared
+ * by several {@link PickupDragController PickupDragControllers}. Registering and unregistering a
+ * drop controller take constant time.
+ *
+ * @see PickupDragController#PickupDragController(
+ *      com.google.gwt.user.client.ui.AbsolutePanel, boolean, DropTargetRegistry)
+ */
+public class DropTargetRegistry implements Iterable<DropController> {
+
+  private final LinkedHashSet<DropController> dropTargets = new LinkedHashSet<DropController>();
+
+  /**
+   * Incremented whenever drop controllers are registered or unregistered.
+   */
+  private int generation;
+
+  /**
+   * Unregister all drop controllers.
+   */
+  public void clear() {
+    if (!dropTargets.isEmpty()) {
+      dropTargets.clear();
+      generation++;
+    }
+  }
+
+  /**
+   * Get a number which changes whenever drop controllers are registered or unregistered, allowing
+   * callers to detect changes without comparing contents.
+   *
+   * @return the current registration generation
+   */
+  public int getGeneration() {
+    return generation;
+  }
+
+  /**
+   * Determine whether a drop controller is registered.
+   *
+   * @param dropController the drop controller
+   * @return <code>true</code> if the drop controller is registered
+   */
+  public boolean isRegistered(DropController dropController) {
+    return dropTargets.contains(dropController);
+  }
+
+  @Override
+  public Iterator<DropController> iterator() {
+    return dropTargets.iterator();
+  }
+
+  /**
+   * Register a drop controller. Registering a drop controller twice has no effect.
+   *
+   * @param dropController the drop controller to register
+   */
+  public void register(DropController dropController) {
+    if (dropTargets.add(dropController)) {
+      generation++;
+    }
+  }
+
+  /**
+   * Determine the number of registered drop controllers.
+   *
+   * @return the number of drop controllers
+   */
+  public int size() {
+    return dropTargets.size();
+  }
+
+  /**
+   * Unregister a drop controller.
+   *
+   * @param dropController the drop controller to unregister
+   */
+  public void unregister(DropController dropController) {
+    if (dropTargets.remove(dropController)) {
+      generation++;
+    }
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * {@link CacheInvalidationPolicy} which rebuilds the drop target cache only after the page, or any
+ * element in it, was scrolled, or the browser window was resized. Suitable for layouts in which
+ * drop targets only move as a result of scrolling or resizing; DOM changes made by the application
+ * during a drag operation go unnoticed unless it calls {@link PickupDragController#resetCache()}.
+ */
+public class EventDrivenCacheInvalidationPolicy implements CacheInvalidationPolicy {
+
+  /**
+   * Native event listeners, or <code>null</code> when not dragging.
+   */
+  private JavaScriptObject listeners;
+
+  /**
+   * Whether a scroll or resize event occurred since the last cache rebuild.
+   */
+  private boolean stale;
+
+  @Override
+  public void onDragEnd(PickupDragController dragController) {
+    if (listeners != null) {
+      removeListeners(listeners);
+      listeners = null;
+    }
+  }
+
+  @Override
+  public void onDragMove(PickupDragController dragController) {
+    if (stale) {
+      stale = false;
+      dragController.resetCache();
+    }
+  }
+
+  @Override
+  public void onDragStart(PickupDragController dragController) {
+    assert listeners == null;
+    stale = false;
+    listeners = addListeners();
+  }
+
+  private native JavaScriptObject addListeners()
+  /*-{
+    var self = this;
+    var listener = $entry(function(evt) {
+      // the drag controller already shifted its cache for auto scrolling
+      var target = evt.target;
+      if (target && target[@com.finarx.gwt.dnd.client.AutoScroller::AUTO_SCROLLED]) {
+        return;
+      }
+      self.@com.finarx.gwt.dnd.client.EventDrivenCacheInvalidationPolicy::stale = true;
+    });
+    // capture phase, as scroll events on elements do not bubble
+    $doc.addEventListener("scroll", listener, true);
+    $wnd.addEventListener("resize", listener, false);
+    return listener;
+  }-*/;
+
+  private native void removeListeners(JavaScriptObject listener)
+  /*-{
+    $doc.removeEventListener("scroll", listener, true);
+    $wnd.removeEventListener("resize", listener, false);
+  }-*/;
+}
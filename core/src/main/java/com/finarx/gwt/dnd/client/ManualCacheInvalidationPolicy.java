@@ -0,0 +1,34 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client;
+
+/**
+ * {@link CacheInvalidationPolicy} which never refreshes the drop target cache by itself once a drag
+ * operation has started. Suitable for static layouts, or for applications which call
+ * {@link PickupDragController#resetCache()} themselves whenever they move drop targets.
+ */
+public class ManualCacheInvalidationPolicy implements CacheInvalidationPolicy {
+
+  @Override
+  public void onDragEnd(PickupDragController dragController) {
+  }
+
+  @Override
+  public void onDragMove(PickupDragController dragController) {
+  }
+
+  @Override
+  public void onDragStart(PickupDragController dragController) {
+  }
+}
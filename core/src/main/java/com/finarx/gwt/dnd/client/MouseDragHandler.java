@@ -60,6 +60,7 @@ import java.util.HashMap;
  */
 class MouseDragHandler
     implements
+    DragInputHandler,
     MouseMoveHandler,
     MouseDownHandler,
     MouseUpHandler,
@@ -109,6 +110,12 @@ class MouseDragHandler
 
   private final DragContext context;
 
+  private DelegatedDragHandles delegatedDragHandles;
+
+  private HandlerRegistration delegatedMouseDownHandlerRegistration;
+
+  private HandlerRegistration delegatedTouchStartHandlerRegistration;
+
   private int dragging = NOT_DRAGGING;
 
   private HashMap<Widget, RegisteredDraggable> dragHandleMap =
@@ -122,8 +129,11 @@ class MouseDragHandler
 
   private int mouseDownPageOffsetY;
 
+  private final DragMoveScheduler moveScheduler;
+
   MouseDragHandler(DragContext context) {
     this.context = context;
+    moveScheduler = new DragMoveScheduler(context);
     initCapturingWidget();
   }
 
@@ -138,9 +148,12 @@ class MouseDragHandler
       return;
     }
 
-    Widget sender = (Widget) event.getSource();
-    int x = event.getX();
-    int y = event.getY();
+    Widget sender = getDragHandle(event);
+    if (sender == null) {
+      return;
+    }
+    int x = event.getRelativeX(sender.getElement());
+    int y = event.getRelativeY(sender.getElement());
 
     int button = event.getNativeButton();
 
@@ -155,7 +168,7 @@ class MouseDragHandler
 
     // mouse down (not first mouse move) determines draggable widget
     mouseDownWidget = sender;
-    context.draggable = dragHandleMap.get(mouseDownWidget).getDragable();
+    context.draggable = getDraggable(mouseDownWidget);
     assert context.draggable != null;
 
     if (!toggleKey(event) && !context.selectedWidgets.contains(context.draggable)) {
@@ -428,13 +441,16 @@ class MouseDragHandler
       return;
     }
 
-    Widget sender = (Widget) event.getSource();
-    int x = event.getTouches().get(0).getRelativeX(event.getRelativeElement());
-    int y = event.getTouches().get(0).getRelativeY(event.getRelativeElement());
+    Widget sender = getDragHandle(event);
+    if (sender == null) {
+      return;
+    }
+    int x = event.getTouches().get(0).getRelativeX(sender.getElement());
+    int y = event.getTouches().get(0).getRelativeY(sender.getElement());
 
     // mouse down (not first mouse move) determines draggable widget
     mouseDownWidget = sender;
-    context.draggable = dragHandleMap.get(mouseDownWidget).getDragable();
+    context.draggable = getDraggable(mouseDownWidget);
     assert context.draggable != null;
 
     context.dragController.clearSelection();
@@ -463,19 +479,20 @@ class MouseDragHandler
   }
 
   void actualMove(int x, int y) {
-    context.mouseX = x;
-    context.mouseY = y;
-    context.desiredDraggableX = x - mouseDownOffsetX;
-    context.desiredDraggableY = y - mouseDownOffsetY;
-
-    context.dragController.dragMove();
+    setPosition(x, y);
+    moveScheduler.moved();
   }
 
-  void makeDraggable(Widget draggable, Widget dragHandle) {
+  @Override
+  public void makeDraggable(Widget draggable, Widget dragHandle) {
     if (draggable instanceof PopupPanel) {
       DOMUtil.reportFatalAndThrowRuntimeException(
           "PopupPanel (and its subclasses) cannot be made draggable; See https://github.com/fredsa/gwt-dnd/issues/43");
     }
+    if (delegatedDragHandles != null) {
+      // the delegated listeners on the boundary panel resolve the drag handle
+      return;
+    }
     try {
       RegisteredDraggable registeredDraggable = new RegisteredDraggable(draggable, dragHandle);
       dragHandleMap.put(dragHandle, registeredDraggable);
@@ -485,7 +502,11 @@ class MouseDragHandler
     }
   }
 
-  void makeNotDraggable(Widget dragHandle) {
+  @Override
+  public void makeNotDraggable(Widget dragHandle) {
+    if (delegatedDragHandles != null) {
+      return;
+    }
     RegisteredDraggable registeredDraggable = dragHandleMap.remove(dragHandle);
     if (registeredDraggable == null) {
       throw new RuntimeException("dragHandle was not draggable");
@@ -500,13 +521,29 @@ class MouseDragHandler
     }
   }
 
+  @Override
+  public void setDelegatedDragHandles(DelegatedDragHandles delegatedDragHandles) {
+    assert dragHandleMap.isEmpty() : "Drag handles are already registered individually";
+    if (delegatedMouseDownHandlerRegistration != null) {
+      delegatedMouseDownHandlerRegistration.removeHandler();
+      delegatedTouchStartHandlerRegistration.removeHandler();
+      delegatedMouseDownHandlerRegistration = null;
+      delegatedTouchStartHandlerRegistration = null;
+    }
+    this.delegatedDragHandles = delegatedDragHandles;
+    if (delegatedDragHandles != null) {
+      delegatedMouseDownHandlerRegistration =
+          context.boundaryPanel.addDomHandler(this, MouseDownEvent.getType());
+      delegatedTouchStartHandlerRegistration =
+          context.boundaryPanel.addDomHandler(this, TouchStartEvent.getType());
+    }
+  }
+
   private void doSelectionToggle(HumanInputEvent<?> event) {
-    RegisteredDraggable registeredDraggable = dragHandleMap.get(mouseDownWidget);
-    if (registeredDraggable == null) {
+    Widget widget = getDraggable(mouseDownWidget);
+    if (widget == null) {
       return;
     }
-    Widget widget = registeredDraggable.getDragable();
-    assert widget != null;
     if (!toggleKey(event)) {
       context.dragController.clearSelection();
     }
@@ -514,6 +551,7 @@ class MouseDragHandler
   }
 
   private void dragEndCleanup() {
+    moveScheduler.cancel();
     DOM.releaseCapture(capturingWidget.getElement());
     capturingWidget.removeFromParent();
     dragging = NOT_DRAGGING;
@@ -521,7 +559,9 @@ class MouseDragHandler
   }
 
   private void drop(int x, int y) {
-    actualMove(x, y);
+    // ensure any coalesced move is applied before the drop
+    setPosition(x, y);
+    moveScheduler.flush();
 
     // Does the DragController allow the drop?
     try {
@@ -533,6 +573,25 @@ class MouseDragHandler
     context.dragController.dragEnd();
   }
 
+  /**
+   * Determine the drag handle which received a mouse down or touch start event.
+   */
+  private Widget getDragHandle(HumanInputEvent<?> event) {
+    if (delegatedDragHandles == null) {
+      return (Widget) event.getSource();
+    }
+    return delegatedDragHandles.findDragHandle(event.getNativeEvent().getEventTarget(),
+        context.boundaryPanel.getElement());
+  }
+
+  private Widget getDraggable(Widget dragHandle) {
+    if (delegatedDragHandles != null) {
+      return delegatedDragHandles.getDraggable(dragHandle);
+    }
+    RegisteredDraggable registeredDraggable = dragHandleMap.get(dragHandle);
+    return registeredDraggable == null ? null : registeredDraggable.getDragable();
+  }
+
   private void initCapturingWidget() {
     capturingWidget = new FocusPanel();
     capturingWidget.addMouseMoveHandler(this);
@@ -548,6 +607,7 @@ class MouseDragHandler
     style.setMargin(0, Style.Unit.PX);
     style.setBorderStyle(BorderStyle.NONE);
     style.setBackgroundColor("blue");
+    DropControllerCollection.setHitTestIgnored(capturingWidget.getElement());
   }
 
   private void onTouchEndorCancel(TouchEvent<?> event) {
@@ -582,6 +642,13 @@ class MouseDragHandler
     }
   }
 
+  private void setPosition(int x, int y) {
+    context.mouseX = x;
+    context.mouseY = y;
+    context.desiredDraggableX = x - mouseDownOffsetX;
+    context.desiredDraggableY = y - mouseDownOffsetY;
+  }
+
   private void startCapturing() {
     capturingWidget.setPixelSize(0, 0);
     RootPanel.get().add(capturingWidget, 0, 0);
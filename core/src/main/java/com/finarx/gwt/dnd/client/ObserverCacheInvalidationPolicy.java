@@ -0,0 +1,85 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client;
+
+/**
+ * {@link CacheInvalidationPolicy} which keeps the drop target cache up to date by observing the
+ * DOM, rather than rebuilding it periodically. Only drop targets which are resized, or which are
+ * inside a scrolled element, are re-measured; other DOM changes inside the boundary panel, resizing
+ * the browser window and registering or unregistering drop controllers still cause a full rebuild.
+ * Browsers without <code>ResizeObserver</code> and <code>MutationObserver</code> support fall back
+ * to a {@link TimedCacheInvalidationPolicy}.
+ */
+public class ObserverCacheInvalidationPolicy implements CacheInvalidationPolicy {
+
+  /**
+   * Cache generation for which drop targets are currently observed.
+   */
+  private int cacheGeneration;
+
+  private final CacheInvalidationPolicy fallbackPolicy = new TimedCacheInvalidationPolicy();
+
+  /**
+   * Observer for the current drag operation, or <code>null</code> when not observing.
+   */
+  private DropTargetObserver dropTargetObserver;
+
+  @Override
+  public void onDragEnd(PickupDragController dragController) {
+    if (dropTargetObserver != null) {
+      dropTargetObserver.stop();
+      dropTargetObserver = null;
+    } else {
+      fallbackPolicy.onDragEnd(dragController);
+    }
+  }
+
+  @Override
+  public void onDragMove(PickupDragController dragController) {
+    if (dropTargetObserver == null) {
+      fallbackPolicy.onDragMove(dragController);
+      return;
+    }
+    DropControllerCollection dropControllerCollection = dragController.getDropControllerCollection();
+    if (dropTargetObserver.takeRebuildRequired() || dropControllerCollection.isRegistryChanged()) {
+      dropTargetObserver.takeInvalidated();
+      dragController.resetCache();
+    } else if (dropTargetObserver.takeInvalidated()) {
+      dragController.refreshInvalidatedCache();
+    }
+    // the application may have rebuilt the cache, too
+    if (cacheGeneration != dropControllerCollection.getCacheGeneration()) {
+      observeDropTargets(dropControllerCollection);
+    }
+  }
+
+  @Override
+  public void onDragStart(PickupDragController dragController) {
+    assert dropTargetObserver == null;
+    if (!DropTargetObserver.isSupported()) {
+      fallbackPolicy.onDragStart(dragController);
+      return;
+    }
+    DropControllerCollection dropControllerCollection = dragController.getDropControllerCollection();
+    dropTargetObserver = new DropTargetObserver(dropControllerCollection);
+    dropTargetObserver.start(dragController.getBoundaryPanel().getElement(),
+        dragController.getMovablePanel().getElement());
+    cacheGeneration = dropControllerCollection.getCacheGeneration();
+  }
+
+  private void observeDropTargets(DropControllerCollection dropControllerCollection) {
+    cacheGeneration = dropControllerCollection.getCacheGeneration();
+    dropTargetObserver.observeDropTargets();
+  }
+}
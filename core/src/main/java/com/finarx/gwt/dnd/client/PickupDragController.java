@@ -15,6 +15,9 @@ package com.finarx.gwt.dnd.client;
 
 import com.finarx.gwt.dnd.client.drop.DropController;
 import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.dom.client.Style;
 import com.google.gwt.user.client.DOM;
 import com.google.gwt.user.client.ui.AbsolutePanel;
 import com.google.gwt.user.client.ui.InsertPanel;
@@ -22,14 +25,17 @@ import com.google.gwt.user.client.ui.SimplePanel;
 import com.google.gwt.user.client.ui.Widget;
 
 import com.finarx.gwt.dnd.client.drop.BoundaryDropController;
+import com.finarx.gwt.dnd.client.drop.HasDropEligibility;
+import com.finarx.gwt.dnd.client.util.Area;
 import com.finarx.gwt.dnd.client.util.CoordinateLocation;
 import com.finarx.gwt.dnd.client.util.DOMUtil;
 import com.finarx.gwt.dnd.client.util.DragClientBundle;
+import com.finarx.gwt.dnd.client.util.LayoutCache;
+import com.finarx.gwt.dnd.client.util.LayoutScheduler;
 import com.finarx.gwt.dnd.client.util.Location;
 import com.finarx.gwt.dnd.client.util.WidgetArea;
 import com.finarx.gwt.dnd.client.util.WidgetLocation;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 
 /*
@@ -67,9 +73,20 @@ public class PickupDragController extends AbstractDragController {
   }
 
   /**
-   * TODO Decide if 100ms is a good number
+   * Auto scroller of the current drag operation, or <code>null</code>.
    */
-  private static final int CACHE_TIME_MILLIS = 100;
+  private AutoScroller autoScroller;
+
+  /**
+   * Width in pixels of the zone along the edges of scrollable containers within which they are
+   * auto scrolled.
+   */
+  private int autoScrollEdge = 40;
+
+  /**
+   * Whether or not scrollable containers are scrolled while the pointer rests near their edges.
+   */
+  private boolean autoScrollEnabled = false;
 
   /**
    * The implicit boundary drop controller.
@@ -80,22 +97,111 @@ public class PickupDragController extends AbstractDragController {
 
   private int boundaryOffsetY;
 
+  /**
+   * Whether the drop target geometry changed in the most recent {@link #resetCache()}.
+   */
+  private boolean cacheChanged;
+
+  /**
+   * Decides when the drop target cache is refreshed during a drag operation.
+   */
+  private CacheInvalidationPolicy cacheInvalidationPolicy = new TimedCacheInvalidationPolicy();
+
+  /**
+   * Hash of the drop target geometry and boundary offset as of the most recent
+   * {@link #resetCache()}.
+   */
+  private int cacheGeometryHash;
+
   private boolean dragProxyEnabled = false;
 
+  /**
+   * Overlay of the current drag operation, or <code>null</code>.
+   */
+  private DropFeedbackOverlay dropFeedbackOverlay;
+
+  /**
+   * Whether or not drop feedback is drawn in an overlay layer.
+   */
+  private boolean dropFeedbackOverlayEnabled = false;
+
   private final DropControllerCollection dropControllerCollection;
 
-  private final ArrayList<DropController> dropControllerList = new ArrayList<DropController>();
+  private final DropTargetRegistry dropTargetRegistry;
 
-  private int dropTargetClientHeight;
+  /**
+   * Whether or not drop targets are found via the element under the pointer.
+   */
+  private boolean elementFromPoint = false;
 
-  private int dropTargetClientWidth;
+  /**
+   * Location of the movable panel relative to the boundary panel, as last written.
+   */
+  private int movableLeft;
 
-  private long lastResetCacheTimeMillis;
+  /**
+   * Location at which the movable panel was added to the boundary panel, from which it is
+   * translated while {@link #transformPositioning} is enabled.
+   */
+  private int movableOriginLeft;
+
+  private int movableOriginTop;
+
+  /**
+   * Whether {@link #moveMovablePanel} is pending in the current layout frame.
+   */
+  private boolean movableMoveScheduled;
 
   private Widget movablePanel;
 
+  private int movableTop;
+
+  /**
+   * Moves the movable panel to its pending location once the current layout frame ends.
+   */
+  private final ScheduledCommand moveMovablePanel = new ScheduledCommand() {
+    @Override
+    public void execute() {
+      movableMoveScheduled = false;
+      if (movablePanel == null) {
+        return;
+      }
+      movableLeft = pendingMovableLeft;
+      movableTop = pendingMovableTop;
+      if (transformPositioning) {
+        DOMUtil.fastSetElementTransform(movablePanel.getElement(), movableLeft
+            - movableOriginLeft, movableTop - movableOriginTop);
+      } else {
+        DOMUtil.fastSetElementPosition(movablePanel.getElement(), movableLeft, movableTop);
+      }
+    }
+  };
+
+  /**
+   * Location of the movable panel as of the most recent move, applied by
+   * {@link #moveMovablePanel}.
+   */
+  private int pendingMovableLeft;
+
+  private int pendingMovableTop;
+
   private HashMap<Widget, SavedWidgetInfo> savedWidgetInfoMap;
 
+  /**
+   * Whether or not the movable panel is moved by a CSS transform rather than by left and top.
+   */
+  private boolean transformPositioning = false;
+
+  /**
+   * Whether or not drop targets away from the viewport are culled from the drop target cache.
+   */
+  private boolean viewportCulling = false;
+
+  /**
+   * Distance in pixels around the viewport within which drop targets are not culled.
+   */
+  private int viewportCullingMargin = 250;
+
   /**
    * Create a new pickup-and-move style drag controller. Allows widgets or a suitable proxy to be
    * temporarily picked up and moved around the specified boundary panel.
@@ -110,15 +216,49 @@ public class PickupDragController extends AbstractDragController {
    * @param allowDroppingOnBoundaryPanel whether or not boundary panel should allow dropping
    */
   public PickupDragController(AbsolutePanel boundaryPanel, boolean allowDroppingOnBoundaryPanel) {
+    this(boundaryPanel, allowDroppingOnBoundaryPanel, new DropTargetRegistry());
+  }
+
+  /**
+   * Create a new pickup-and-move style drag controller whose drop controllers are kept in the
+   * provided registry, which may be shared with other drag controllers. Registering or
+   * unregistering a drop controller with any of those drag controllers affects all of them.
+   *
+   * <p>
+   * Note: An implicit {@link BoundaryDropController} is created automatically. It belongs to this
+   * drag controller only and is not added to the registry.
+   * </p>
+   *
+   * @param boundaryPanel the desired boundary panel or <code>RootPanel.get()</code> if entire
+   *          document body is to be the boundary
+   * @param allowDroppingOnBoundaryPanel whether or not boundary panel should allow dropping
+   * @param dropTargetRegistry the registry of drop controllers to use
+   */
+  public PickupDragController(AbsolutePanel boundaryPanel, boolean allowDroppingOnBoundaryPanel,
+      DropTargetRegistry dropTargetRegistry) {
     super(boundaryPanel);
     assert boundaryPanel != null : "Use 'RootPanel.get()' instead of 'null'.";
+    assert dropTargetRegistry != null;
+    this.dropTargetRegistry = dropTargetRegistry;
     boundaryDropController = newBoundaryDropController(boundaryPanel, allowDroppingOnBoundaryPanel);
-    registerDropController(boundaryDropController);
-    dropControllerCollection = new DropControllerCollection(dropControllerList);
+    dropControllerCollection = new DropControllerCollection(dropTargetRegistry,
+        boundaryDropController);
   }
 
   @Override
   public void dragEnd() {
+    if (autoScroller != null) {
+      autoScroller.cancel();
+      autoScroller = null;
+    }
+    cacheInvalidationPolicy.onDragEnd(this);
+    if (transformPositioning) {
+      // commit the final location before any drop controller measures the dragged widgets
+      Style style = movablePanel.getElement().getStyle();
+      style.clearProperty("transform");
+      style.clearProperty("willChange");
+      DOMUtil.fastSetElementPosition(movablePanel.getElement(), movableLeft, movableTop);
+    }
     assert context.finalDropController == null == (context.vetoException != null);
     if (context.vetoException != null) {
       context.dropController.onLeave(context);
@@ -137,52 +277,80 @@ public class PickupDragController extends AbstractDragController {
     }
     movablePanel.removeFromParent();
     movablePanel = null;
+    context.geometrySnapshot = null;
+    if (dropFeedbackOverlay != null) {
+      dropFeedbackOverlay.detach();
+      dropFeedbackOverlay = null;
+      context.dropFeedbackOverlay = null;
+    }
     super.dragEnd();
   }
 
   @Override
   public void dragMove() {
-    // may have changed due to scrollIntoView(), developer driven changes
-    // or manual user scrolling
-    long timeMillis = System.currentTimeMillis();
-    if (timeMillis - lastResetCacheTimeMillis >= CACHE_TIME_MILLIS) {
-      lastResetCacheTimeMillis = timeMillis;
-      resetCache();
-      calcBoundaryOffset();
-    }
-
-    int desiredLeft = context.desiredDraggableX - boundaryOffsetX;
-    int desiredTop = context.desiredDraggableY - boundaryOffsetY;
-    if (getBehaviorConstrainedToBoundaryPanel()) {
-      desiredLeft = Math.max(0,
-          Math.min(desiredLeft, dropTargetClientWidth - context.draggable.getOffsetWidth()));
-      desiredTop = Math.max(0,
-          Math.min(desiredTop, dropTargetClientHeight - context.draggable.getOffsetHeight()));
-    }
-
-    DOMUtil.fastSetElementPosition(movablePanel.getElement(), desiredLeft, desiredTop);
+    // measure everything before any DOM changes are made in this frame
+    LayoutScheduler.beginFrame();
+    try {
+      // may have changed due to scrollIntoView(), developer driven changes
+      // or manual user scrolling
+      cacheInvalidationPolicy.onDragMove(this);
+
+      dropControllerCollection.updateViewport(autoScroller == null ? 0
+          : autoScroller.getLookahead());
+
+      DragGeometrySnapshot snapshot = context.geometrySnapshot;
+      int desiredLeft = context.desiredDraggableX - snapshot.getBoundaryOffsetX();
+      int desiredTop = context.desiredDraggableY - snapshot.getBoundaryOffsetY();
+      if (getBehaviorConstrainedToBoundaryPanel()) {
+        desiredLeft = Math.max(0, Math.min(desiredLeft, snapshot.getBoundaryClientWidth()
+            - snapshot.getDraggableWidth()));
+        desiredTop = Math.max(0, Math.min(desiredTop, snapshot.getBoundaryClientHeight()
+            - snapshot.getDraggableHeight()));
+      }
+      pendingMovableLeft = desiredLeft;
+      pendingMovableTop = desiredTop;
+      if (!movableMoveScheduled) {
+        movableMoveScheduled = true;
+        LayoutScheduler.mutate(moveMovablePanel);
+      }
 
-    DropController newDropController = getIntersectDropController(context.mouseX, context.mouseY);
-    if (context.dropController != newDropController) {
-      if (context.dropController != null) {
-        context.dropController.onLeave(context);
+      DropController newDropController = getIntersectDropController(context.mouseX,
+          context.mouseY);
+      if (context.dropController != newDropController) {
+        if (context.dropController != null) {
+          context.dropController.onLeave(context);
+        }
+        context.dropController = newDropController;
+        if (context.dropController != null) {
+          rememberTargetArea();
+          context.dropController.onEnter(context);
+        }
       }
-      context.dropController = newDropController;
+
       if (context.dropController != null) {
-        context.dropController.onEnter(context);
+        context.dropController.onMove(context);
       }
-    }
 
-    if (context.dropController != null) {
-      context.dropController.onMove(context);
+      if (autoScroller != null) {
+        autoScroller.update();
+      }
+    } finally {
+      LayoutScheduler.endFrame();
     }
   }
 
   @Override
   public void dragStart() {
+    dropControllerCollection.resetDropEligibility();
     super.dragStart();
 
-    lastResetCacheTimeMillis = System.currentTimeMillis();
+    if (dropFeedbackOverlayEnabled) {
+      dropFeedbackOverlay = new DropFeedbackOverlay();
+      dropFeedbackOverlay.attach(context.boundaryPanel);
+      dropFeedbackOverlay.setOrigin(boundaryOffsetX, boundaryOffsetY);
+      context.dropFeedbackOverlay = dropFeedbackOverlay;
+    }
+
     WidgetLocation currentDraggableLocation = new WidgetLocation(context.draggable,
         context.boundaryPanel);
     if (getBehaviorDragProxy()) {
@@ -211,6 +379,7 @@ public class PickupDragController extends AbstractDragController {
 
       context.dropController = getIntersectDropController(context.mouseX, context.mouseY);
       if (context.dropController != null) {
+        rememberTargetArea();
         context.dropController.onEnter(context);
       }
 
@@ -223,9 +392,42 @@ public class PickupDragController extends AbstractDragController {
       movablePanel = container;
     }
     movablePanel.addStyleName(DragClientBundle.INSTANCE.css().movablePanel());
+    DropControllerCollection.setHitTestIgnored(movablePanel.getElement());
+    movableOriginLeft = movableLeft = currentDraggableLocation.getLeft();
+    movableOriginTop = movableTop = currentDraggableLocation.getTop();
+    if (transformPositioning) {
+      // promote the movable panel to its own compositing layer for the duration of the drag
+      Style style = movablePanel.getElement().getStyle();
+      style.setProperty("willChange", "transform");
+      DOMUtil.fastSetElementTransform(movablePanel.getElement(), 0, 0);
+    }
+    context.geometrySnapshot = new DragGeometrySnapshot();
     calcBoundaryOffset();
-    dropTargetClientWidth = DOMUtil.getClientWidth(boundaryPanel.getElement());
-    dropTargetClientHeight = DOMUtil.getClientHeight(boundaryPanel.getElement());
+
+    cacheInvalidationPolicy.onDragStart(this);
+    if (autoScrollEnabled) {
+      autoScroller = new AutoScroller(this, context, autoScrollEdge);
+    }
+  }
+
+  /**
+   * Determine whether or not scrollable containers are scrolled while the pointer rests near their
+   * edges.
+   *
+   * @return <code>true</code> if auto scroll behavior is enabled
+   */
+  public boolean getBehaviorAutoScroll() {
+    return autoScrollEnabled;
+  }
+
+  /**
+   * Get the width of the zone along the edges of scrollable containers within which they are auto
+   * scrolled.
+   *
+   * @return the edge zone width in pixels
+   */
+  public int getBehaviorAutoScrollEdge() {
+    return autoScrollEdge;
   }
 
   /**
@@ -247,6 +449,70 @@ public class PickupDragController extends AbstractDragController {
     return dragProxyEnabled;
   }
 
+  /**
+   * Determine whether or not drop feedback is drawn in an overlay layer on the boundary panel.
+   *
+   * @return <code>true</code> if drop feedback overlay behavior is enabled
+   */
+  public boolean getBehaviorDropFeedbackOverlay() {
+    return dropFeedbackOverlayEnabled;
+  }
+
+  /**
+   * Determine whether or not drop targets are found via the element under the pointer.
+   *
+   * @return <code>true</code> if element-from-point hit testing is enabled
+   */
+  public boolean getBehaviorElementFromPoint() {
+    return elementFromPoint;
+  }
+
+  /**
+   * Determine whether or not the movable panel is moved by a CSS transform during a drag.
+   *
+   * @return <code>true</code> if transform positioning behavior is enabled
+   */
+  public boolean getBehaviorTransformPositioning() {
+    return transformPositioning;
+  }
+
+  /**
+   * Determine whether or not drop targets away from the viewport are culled from the drop target
+   * cache.
+   *
+   * @return <code>true</code> if viewport culling behavior is enabled
+   */
+  public boolean getBehaviorViewportCulling() {
+    return viewportCulling;
+  }
+
+  /**
+   * Get the distance around the viewport within which drop targets are not culled.
+   *
+   * @return the margin in pixels
+   */
+  public int getBehaviorViewportCullingMargin() {
+    return viewportCullingMargin;
+  }
+
+  /**
+   * Get the policy which decides when the drop target cache is refreshed during a drag operation.
+   *
+   * @return the cache invalidation policy
+   */
+  public CacheInvalidationPolicy getCacheInvalidationPolicy() {
+    return cacheInvalidationPolicy;
+  }
+
+  /**
+   * Get the registry holding this drag controller's drop controllers.
+   *
+   * @return the drop target registry
+   */
+  public DropTargetRegistry getDropTargetRegistry() {
+    return dropTargetRegistry;
+  }
+
   /**
    * Retrieve currently selected widgets.
    *
@@ -277,19 +543,60 @@ public class PickupDragController extends AbstractDragController {
 
   /**
    * Register a new DropController, representing a new drop target, with this drag controller.
+   * Drop controllers which implement {@link HasDropEligibility} are only considered for drag
+   * operations they accept.
    *
    * @see #unregisterDropController(DropController)
    *
    * @param dropController the controller to register
    */
   public void registerDropController(DropController dropController) {
-    dropControllerList.add(dropController);
+    dropTargetRegistry.register(dropController);
   }
 
+  /**
+   * Rebuild the drop target cache, re-measuring all drop targets and the boundary panel offset.
+   * Called at the start of each drag operation and whenever the
+   * {@link #setCacheInvalidationPolicy(CacheInvalidationPolicy) cache invalidation policy} decides
+   * the cache is stale.
+   */
   @Override
   public void resetCache() {
     super.resetCache();
     dropControllerCollection.resetCache(boundaryPanel, context);
+    calcBoundaryOffset();
+    int previousGeometryHash = cacheGeometryHash;
+    cacheGeometryHash = (dropControllerCollection.getGeometryHash() * 31 + boundaryOffsetX) * 31
+        + boundaryOffsetY;
+    cacheChanged = cacheGeometryHash != previousGeometryHash;
+  }
+
+  /**
+   * Set whether or not to scroll the scrollable ancestors of the engaged drop target and of the
+   * boundary panel, and the browser window, while the pointer rests within
+   * {@link #setBehaviorAutoScrollEdge(int) the edge zone} of one of them. Containers are scrolled
+   * once per animation frame, faster the closer the pointer is to the edge, and the cached drop
+   * target geometry is shifted by the distance scrolled rather than rebuilt. Auto scrolling takes
+   * the place of {@link #setBehaviorScrollIntoView(boolean) scroll into view} behavior. Defaults to
+   * <code>false</code>. Must not be changed during a drag operation.
+   *
+   * @param autoScrollEnabled <code>true</code> to enable auto scroll behavior
+   */
+  public void setBehaviorAutoScroll(boolean autoScrollEnabled) {
+    assert context.draggable == null : "Cannot change auto scroll behavior while dragging";
+    this.autoScrollEnabled = autoScrollEnabled;
+  }
+
+  /**
+   * Set the width of the zone along the edges of scrollable containers within which they are auto
+   * scrolled. Defaults to <code>40</code> pixels. Must not be changed during a drag operation.
+   *
+   * @param pixels edge zone width in pixels
+   */
+  public void setBehaviorAutoScrollEdge(int pixels) {
+    assert pixels > 0;
+    assert context.draggable == null : "Cannot change auto scroll behavior while dragging";
+    autoScrollEdge = pixels;
   }
 
   /**
@@ -314,6 +621,98 @@ public class PickupDragController extends AbstractDragController {
     this.dragProxyEnabled = dragProxyEnabled;
   }
 
+  /**
+   * Set whether or not drop feedback is drawn in a single, absolutely positioned overlay layer on
+   * the boundary panel, instead of by changing the drop targets themselves. The core drop
+   * controllers then highlight the engaged drop target in the overlay rather than toggling its CSS
+   * class, and insert panel drop controllers show an insertion marker rather than inserting a
+   * positioner, so that neither the drop target nor its children are restyled or reflowed during
+   * the drag. Defaults to <code>false</code>. Must not be changed during a drag operation.
+   *
+   * @param dropFeedbackOverlayEnabled <code>true</code> to enable drop feedback overlay behavior
+   * @see DragContext#getDropFeedbackOverlay()
+   */
+  public void setBehaviorDropFeedbackOverlay(boolean dropFeedbackOverlayEnabled) {
+    assert context.draggable == null : "Cannot change drop feedback overlay behavior while dragging";
+    this.dropFeedbackOverlayEnabled = dropFeedbackOverlayEnabled;
+  }
+
+  /**
+   * Set whether or not drop targets are found by asking the browser for the element under the
+   * pointer, ignoring the movable panel, and walking up to the nearest registered drop target. No
+   * drop target geometry is cached, so layouts which scroll or change during a drag are always hit
+   * tested correctly and {@link #resetCache()} is nearly free. Overlapping drop targets are resolved
+   * by what the browser paints on top rather than by DOM depth. Browsers without
+   * <code>document.elementsFromPoint</code> support keep using cached drop target areas. Defaults
+   * to <code>false</code>. Must not be changed during a drag operation.
+   *
+   * @param elementFromPoint <code>true</code> to enable element-from-point hit testing
+   */
+  public void setBehaviorElementFromPoint(boolean elementFromPoint) {
+    assert context.draggable == null : "Cannot change hit testing while dragging";
+    this.elementFromPoint = elementFromPoint;
+    dropControllerCollection.setElementFromPoint(
+        elementFromPoint && DropControllerCollection.isElementFromPointSupported());
+  }
+
+  /**
+   * Set whether or not the movable panel is moved by a <code>translate3d</code> CSS transform
+   * during a drag, on its own compositing layer, rather than by writing its <code>left</code> and
+   * <code>top</code>. Moving it then requires neither layout nor repainting of the page, which
+   * matters for large drag proxies. The final location is written to <code>left</code> and
+   * <code>top</code> when the drag ends, before the drop controllers are notified. Defaults to
+   * <code>false</code>. Must not be changed during a drag operation.
+   *
+   * @param transformPositioning <code>true</code> to enable transform positioning behavior
+   */
+  public void setBehaviorTransformPositioning(boolean transformPositioning) {
+    assert context.draggable == null : "Cannot change transform positioning while dragging";
+    this.transformPositioning = transformPositioning;
+  }
+
+  /**
+   * Set whether or not drop targets away from the viewport are culled from the drop target cache.
+   * Culled drop targets are only roughly located, with a single layout query each, and are neither
+   * fully measured nor hit tested until scrolling the window, or auto scrolling their container,
+   * brings them within {@link #setBehaviorViewportCullingMargin(int) the margin} of the viewport. Useful when the
+   * boundary panel is a long scrolling page with many drop targets. Defaults to
+   * <code>false</code>.
+   *
+   * @param viewportCulling <code>true</code> to enable viewport culling behavior
+   */
+  public void setBehaviorViewportCulling(boolean viewportCulling) {
+    this.viewportCulling = viewportCulling;
+    updateViewportCulling();
+  }
+
+  /**
+   * Set the distance around the viewport within which drop targets are not culled. While
+   * {@link #setBehaviorAutoScroll(boolean) auto scrolling}, the margin is widened by the distance
+   * auto scrolling covers in half a second at its current speed. Defaults to
+   * <code>250</code> pixels.
+   *
+   * @param pixels margin in pixels
+   */
+  public void setBehaviorViewportCullingMargin(int pixels) {
+    assert pixels >= 0;
+    viewportCullingMargin = pixels;
+    updateViewportCulling();
+  }
+
+  /**
+   * Set the policy which decides when the drop target cache is refreshed during a drag operation.
+   * Defaults to a {@link TimedCacheInvalidationPolicy} which rebuilds the cache every 100
+   * milliseconds. Policies may keep state for the current drag operation, so each drag controller
+   * needs its own instance. Must not be changed during a drag operation.
+   *
+   * @param cacheInvalidationPolicy the cache invalidation policy to use
+   */
+  public void setCacheInvalidationPolicy(CacheInvalidationPolicy cacheInvalidationPolicy) {
+    assert cacheInvalidationPolicy != null;
+    assert context.draggable == null : "Cannot change cache invalidation policy while dragging";
+    this.cacheInvalidationPolicy = cacheInvalidationPolicy;
+  }
+
   /**
    * Unregister a DropController from this drag controller.
    *
@@ -323,7 +722,7 @@ public class PickupDragController extends AbstractDragController {
    * @param dropController the controller to register
    */
   public void unregisterDropController(DropController dropController) {
-    dropControllerList.remove(dropController);
+    dropTargetRegistry.unregister(dropController);
   }
 
   /**
@@ -333,7 +732,7 @@ public class PickupDragController extends AbstractDragController {
    * @see #unregisterDropController(DropController)
    */
   public void unregisterDropControllers() {
-    dropControllerList.clear();
+    dropTargetRegistry.clear();
   }
 
   /**
@@ -454,12 +853,76 @@ public class PickupDragController extends AbstractDragController {
     }
   }
 
+  /**
+   * Called by the auto scroller after it scrolled a container, to shift the cached geometry of the
+   * drop targets inside it and, if the boundary panel is inside it, the boundary offset.
+   *
+   * @param container the element which scrolled
+   * @param clientArea the client area of the container, in document coordinates
+   * @param scrollX the distance scrolled horizontally
+   * @param scrollY the distance scrolled vertically
+   */
+  void containerScrolled(Element container, Area clientArea, int scrollX, int scrollY) {
+    dropControllerCollection.translateDescendants(
+        container.<com.google.gwt.user.client.Element>cast(), clientArea, -scrollX, -scrollY,
+        boundaryPanel);
+    if (container.isOrHasChild(boundaryPanel.getElement())) {
+      // the boundary panel moved, or its absolutely positioned children did
+      boundaryOffsetX -= scrollX;
+      boundaryOffsetY -= scrollY;
+      context.geometrySnapshot.setBoundaryOffset(boundaryOffsetX, boundaryOffsetY);
+      if (dropFeedbackOverlay != null) {
+        dropFeedbackOverlay.setOrigin(boundaryOffsetX, boundaryOffsetY);
+      }
+    }
+  }
+
+  /**
+   * Get the drop controller collection backing the drop target cache.
+   */
+  DropControllerCollection getDropControllerCollection() {
+    return dropControllerCollection;
+  }
+
+  /**
+   * Get the movable panel of the current drag operation.
+   */
+  Widget getMovablePanel() {
+    return movablePanel;
+  }
+
+  /**
+   * Determine whether the drop target geometry or boundary panel offset changed in the most recent
+   * {@link #resetCache()}.
+   */
+  boolean isCacheChanged() {
+    return cacheChanged;
+  }
+
+  /**
+   * Re-measure only the drop targets which were invalidated since the last refresh, and the
+   * boundary panel offset.
+   */
+  void refreshInvalidatedCache() {
+    // the cached styles and clip rectangles may be as stale as the invalidated drop targets
+    LayoutCache.invalidate();
+    dropControllerCollection.refreshInvalidated(boundaryPanel);
+    calcBoundaryOffset();
+  }
+
   private void calcBoundaryOffset() {
+    Element boundaryElement = context.boundaryPanel.getElement();
     Location widgetLocation = new WidgetLocation(context.boundaryPanel, null);
-    boundaryOffsetX = widgetLocation.getLeft()
-        + DOMUtil.getBorderLeft(context.boundaryPanel.getElement());
-    boundaryOffsetY = widgetLocation.getTop()
-        + DOMUtil.getBorderTop(context.boundaryPanel.getElement());
+    boundaryOffsetX = widgetLocation.getLeft() + DOMUtil.getBorderLeft(boundaryElement);
+    boundaryOffsetY = widgetLocation.getTop() + DOMUtil.getBorderTop(boundaryElement);
+    if (context.geometrySnapshot != null) {
+      context.geometrySnapshot.update(context.draggable.getOffsetWidth(),
+          context.draggable.getOffsetHeight(), boundaryOffsetX, boundaryOffsetY,
+          DOMUtil.getClientWidth(boundaryElement), DOMUtil.getClientHeight(boundaryElement));
+    }
+    if (dropFeedbackOverlay != null) {
+      dropFeedbackOverlay.setOrigin(boundaryOffsetX, boundaryOffsetY);
+    }
   }
 
   private void checkGWTIssue1813(Widget child, AbsolutePanel parent) {
@@ -482,4 +945,20 @@ public class PickupDragController extends AbstractDragController {
     DropController dropController = dropControllerCollection.getIntersectDropController(x, y);
     return dropController != null ? dropController : boundaryDropController;
   }
+
+  /**
+   * Let the drop controller about to be engaged reuse the area measured to find its drop target.
+   */
+  private void rememberTargetArea() {
+    if (context.geometrySnapshot != null) {
+      Widget dropTarget = context.dropController.getDropTarget();
+      context.geometrySnapshot.setTargetArea(dropTarget,
+          dropControllerCollection.getTargetArea(dropTarget));
+    }
+  }
+
+  private void updateViewportCulling() {
+    dropControllerCollection.setViewportCullingMargin(
+        viewportCulling ? viewportCullingMargin : -1);
+  }
 }
@@ -0,0 +1,455 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client;
+
+import com.finarx.gwt.dnd.client.util.DOMUtil;
+import com.finarx.gwt.dnd.client.util.Location;
+import com.finarx.gwt.dnd.client.util.WidgetLocation;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.dom.client.NativeEvent;
+import com.google.gwt.user.client.ui.Image;
+import com.google.gwt.user.client.ui.PopupPanel;
+import com.google.gwt.user.client.ui.Widget;
+
+import java.util.HashMap;
+
+/**
+ * Implementation helper class which handles Pointer Events for all draggable widgets for a given
+ * {@link DragController}. Unlike {@link MouseDragHandler}, mouse, pen and touch input share a
+ * single code path, and native pointer capture on the boundary panel replaces the full-screen
+ * capturing widget and the synthesized mouse up and touch end events.
+ */
+class PointerDragHandler implements DragInputHandler {
+
+  private static class RegisteredDraggable {
+    private final Widget draggable;
+    private final JavaScriptObject pointerDownListener;
+
+    RegisteredDraggable(Widget draggable, JavaScriptObject pointerDownListener) {
+      this.draggable = draggable;
+      this.pointerDownListener = pointerDownListener;
+    }
+
+    Widget getDraggable() {
+      return draggable;
+    }
+
+    JavaScriptObject getPointerDownListener() {
+      return pointerDownListener;
+    }
+  }
+
+  private static final int ACTIVELY_DRAGGING = 3;
+
+  private static final int DRAGGING_NO_MOVEMENT_YET = 2;
+
+  private static final int NOT_DRAGGING = 1;
+
+  private static Widget pointerDownWidget;
+
+  /**
+   * Determine whether the browser supports Pointer Events.
+   *
+   * @return <code>true</code> if Pointer Events are available
+   */
+  static native boolean isSupported()
+  /*-{
+    return !!$wnd.PointerEvent;
+  }-*/;
+
+  private static native int getPageX(NativeEvent evt)
+  /*-{
+    return Math.round(evt.pageX);
+  }-*/;
+
+  private static native int getPageY(NativeEvent evt)
+  /*-{
+    return Math.round(evt.pageY);
+  }-*/;
+
+  private static native int getPointerId(NativeEvent evt)
+  /*-{
+    return evt.pointerId;
+  }-*/;
+
+  private static native boolean isPrimaryButtonPress(NativeEvent evt)
+  /*-{
+    return evt.isPrimary && evt.button == 0;
+  }-*/;
+
+  private static native void removeCapturedPointerListener(Element elem, int pointerId,
+      JavaScriptObject listener)
+  /*-{
+    elem.removeEventListener("pointermove", listener, false);
+    elem.removeEventListener("pointerup", listener, false);
+    elem.removeEventListener("pointercancel", listener, false);
+    try {
+      if (elem.hasPointerCapture(pointerId)) {
+        elem.releasePointerCapture(pointerId);
+      }
+    } catch(e) {
+      // pointer is no longer active
+    }
+  }-*/;
+
+  private static native void removePointerDownListener(Element elem, JavaScriptObject listener)
+  /*-{
+    elem.removeEventListener("pointerdown", listener, false);
+  }-*/;
+
+  private JavaScriptObject capturedPointerListener;
+
+  private Element capturingElement;
+
+  private final DragContext context;
+
+  private DelegatedDragHandles delegatedDragHandles;
+
+  /**
+   * The single pointer down listener on the boundary panel when drag handles are delegated.
+   */
+  private JavaScriptObject delegatedPointerDownListener;
+
+  private Element delegatingElement;
+
+  private int dragging = NOT_DRAGGING;
+
+  private HashMap<Widget, RegisteredDraggable> dragHandleMap =
+      new HashMap<Widget, RegisteredDraggable>();
+
+  private final DragMoveScheduler moveScheduler;
+
+  private int pointerDownOffsetX;
+
+  private int pointerDownOffsetY;
+
+  private int pointerDownPageX;
+
+  private int pointerDownPageY;
+
+  private int pointerId;
+
+  PointerDragHandler(DragContext context) {
+    this.context = context;
+    moveScheduler = new DragMoveScheduler(context);
+  }
+
+  @Override
+  public void makeDraggable(Widget draggable, Widget dragHandle) {
+    if (draggable instanceof PopupPanel) {
+      DOMUtil.reportFatalAndThrowRuntimeException(
+          "PopupPanel (and its subclasses) cannot be made draggable; See https://github.com/fredsa/gwt-dnd/issues/43");
+    }
+    Element elem = dragHandle.getElement();
+    // keep the browser from claiming touch input for panning or zooming
+    elem.getStyle().setProperty("touchAction", "none");
+    if (delegatedDragHandles != null) {
+      // the delegated listener on the boundary panel resolves the drag handle
+      return;
+    }
+    dragHandleMap.put(dragHandle,
+        new RegisteredDraggable(draggable, addPointerDownListener(elem, dragHandle)));
+  }
+
+  @Override
+  public void makeNotDraggable(Widget dragHandle) {
+    if (delegatedDragHandles != null) {
+      dragHandle.getElement().getStyle().clearProperty("touchAction");
+      return;
+    }
+    RegisteredDraggable registeredDraggable = dragHandleMap.remove(dragHandle);
+    if (registeredDraggable == null) {
+      throw new RuntimeException("dragHandle was not draggable");
+    }
+    Element elem = dragHandle.getElement();
+    removePointerDownListener(elem, registeredDraggable.getPointerDownListener());
+    elem.getStyle().clearProperty("touchAction");
+  }
+
+  @Override
+  public void setDelegatedDragHandles(DelegatedDragHandles delegatedDragHandles) {
+    assert dragHandleMap.isEmpty() : "Drag handles are already registered individually";
+    if (delegatedPointerDownListener != null) {
+      removePointerDownListener(delegatingElement, delegatedPointerDownListener);
+      delegatedPointerDownListener = null;
+      delegatingElement = null;
+    }
+    this.delegatedDragHandles = delegatedDragHandles;
+    if (delegatedDragHandles != null) {
+      delegatingElement = context.boundaryPanel.getElement();
+      delegatedPointerDownListener = addPointerDownListener(delegatingElement, null);
+    }
+  }
+
+  private void actualMove(int x, int y) {
+    setPosition(x, y);
+    moveScheduler.moved();
+  }
+
+  private native JavaScriptObject addCapturedPointerListener(Element elem, int pointerId)
+  /*-{
+    var self = this;
+    var listener = $entry(function(evt) {
+      if (evt.pointerId != pointerId) {
+        return;
+      }
+      if (evt.type == "pointermove") {
+        self.@com.finarx.gwt.dnd.client.PointerDragHandler::onPointerMove(Lcom/google/gwt/dom/client/NativeEvent;)(evt);
+      } else if (evt.type == "pointerup") {
+        self.@com.finarx.gwt.dnd.client.PointerDragHandler::onPointerUp(Lcom/google/gwt/dom/client/NativeEvent;)(evt);
+      } else {
+        self.@com.finarx.gwt.dnd.client.PointerDragHandler::onPointerCancel(Lcom/google/gwt/dom/client/NativeEvent;)(evt);
+      }
+    });
+    elem.addEventListener("pointermove", listener, false);
+    elem.addEventListener("pointerup", listener, false);
+    elem.addEventListener("pointercancel", listener, false);
+    try {
+      elem.setPointerCapture(pointerId);
+    } catch(e) {
+      // pointer is no longer active; events still bubble to elem
+    }
+    return listener;
+  }-*/;
+
+  /**
+   * Listen for pointer down on an element.
+   *
+   * @param elem the element to listen on
+   * @param dragHandle the drag handle of the element, or <code>null</code> to resolve the drag
+   *          handle from the event target
+   */
+  private native JavaScriptObject addPointerDownListener(Element elem, Widget dragHandle)
+  /*-{
+    var self = this;
+    var listener = $entry(function(evt) {
+      self.@com.finarx.gwt.dnd.client.PointerDragHandler::onPointerDown(Lcom/google/gwt/user/client/ui/Widget;Lcom/google/gwt/dom/client/NativeEvent;)(dragHandle, evt);
+    });
+    elem.addEventListener("pointerdown", listener, false);
+    return listener;
+  }-*/;
+
+  private void doSelectionToggle(NativeEvent evt) {
+    Widget widget = getDraggable(pointerDownWidget);
+    if (widget == null) {
+      return;
+    }
+    if (!toggleKey(evt)) {
+      context.dragController.clearSelection();
+    }
+    context.dragController.toggleSelection(widget);
+  }
+
+  private void dragEndCleanup() {
+    moveScheduler.cancel();
+    stopCapturing();
+    dragging = NOT_DRAGGING;
+    context.dragEndCleanup();
+  }
+
+  private void drop(int x, int y) {
+    // ensure any coalesced move is applied before the drop
+    setPosition(x, y);
+    moveScheduler.flush();
+
+    // Does the DragController allow the drop?
+    try {
+      context.dragController.previewDragEnd();
+    } catch (VetoDragException ex) {
+      context.vetoException = ex;
+    }
+
+    context.dragController.dragEnd();
+  }
+
+  private Widget getDraggable(Widget dragHandle) {
+    if (delegatedDragHandles != null) {
+      return delegatedDragHandles.getDraggable(dragHandle);
+    }
+    RegisteredDraggable registeredDraggable = dragHandleMap.get(dragHandle);
+    return registeredDraggable == null ? null : registeredDraggable.getDraggable();
+  }
+
+  private void maybeCancelDocumentSelections() {
+    if (context.dragController.getBehaviorCancelDocumentSelections()) {
+      Scheduler.get().scheduleDeferred(new ScheduledCommand() {
+        @Override
+        public void execute() {
+          DOMUtil.cancelAllDocumentSelections();
+        }
+      });
+    }
+  }
+
+  private void onPointerCancel(NativeEvent evt) {
+    onPointerUpOrCancel(evt, context.mouseX, context.mouseY);
+  }
+
+  private void onPointerDown(Widget dragHandle, NativeEvent evt) {
+    if (dragHandle == null) {
+      dragHandle = delegatedDragHandles.findDragHandle(evt.getEventTarget(), delegatingElement);
+      if (dragHandle == null) {
+        return;
+      }
+    }
+
+    if (dragging != NOT_DRAGGING) {
+      // Ignore additional pointers while still dragging
+      return;
+    }
+
+    if (!isPrimaryButtonPress(evt)) {
+      return;
+    }
+
+    if (pointerDownWidget != null) {
+      // For multiple overlapping draggable widgets, ignore all but first onPointerDown
+      return;
+    }
+
+    // pointer down (not first pointer move) determines draggable widget
+    pointerDownWidget = dragHandle;
+    context.draggable = getDraggable(pointerDownWidget);
+    assert context.draggable != null;
+
+    if (!toggleKey(evt) && !context.selectedWidgets.contains(context.draggable)) {
+      context.dragController.clearSelection();
+      context.dragController.toggleSelection(context.draggable);
+    }
+
+    // prevent browser image dragging
+    if (pointerDownWidget instanceof Image) {
+      evt.preventDefault();
+    }
+
+    pointerDownPageX = getPageX(evt);
+    pointerDownPageY = getPageY(evt);
+    Location location = new WidgetLocation(context.draggable, null);
+    pointerDownOffsetX = pointerDownPageX - location.getLeft();
+    pointerDownOffsetY = pointerDownPageY - location.getTop();
+
+    startCapturing(getPointerId(evt));
+    if (context.dragController.getBehaviorDragStartSensitivity() == 0 && !toggleKey(evt)) {
+      // set context.mouseX/Y before startDragging() is called
+      context.mouseX = pointerDownPageX;
+      context.mouseY = pointerDownPageY;
+      startDragging();
+      if (dragging == NOT_DRAGGING) {
+        return;
+      }
+      actualMove(pointerDownPageX, pointerDownPageY);
+    }
+  }
+
+  private void onPointerMove(NativeEvent evt) {
+    int x = getPageX(evt);
+    int y = getPageY(evt);
+
+    if (dragging == ACTIVELY_DRAGGING || dragging == DRAGGING_NO_MOVEMENT_YET) {
+      dragging = ACTIVELY_DRAGGING;
+    } else {
+      if (pointerDownWidget != null) {
+        if (Math.max(Math.abs(x - pointerDownPageX), Math.abs(y - pointerDownPageY))
+            >= context.dragController.getBehaviorDragStartSensitivity()) {
+          maybeCancelDocumentSelections();
+          if (!context.selectedWidgets.contains(context.draggable)) {
+            context.dragController.toggleSelection(context.draggable);
+          }
+
+          // set context.mouseX/Y before startDragging() is called
+          context.mouseX = pointerDownPageX;
+          context.mouseY = pointerDownPageY;
+
+          startDragging();
+        }
+      }
+      if (dragging == NOT_DRAGGING) {
+        return;
+      }
+    }
+    // proceed with the actual drag
+    actualMove(x, y);
+  }
+
+  private void onPointerUp(NativeEvent evt) {
+    onPointerUpOrCancel(evt, getPageX(evt), getPageY(evt));
+  }
+
+  private void onPointerUpOrCancel(NativeEvent evt, int x, int y) {
+    // in case pointer down occurred elsewhere
+    if (pointerDownWidget == null) {
+      return;
+    }
+
+    try {
+      if (dragging == NOT_DRAGGING) {
+        doSelectionToggle(evt);
+        return;
+      }
+
+      // Proceed with the drop
+      drop(x, y);
+      if (dragging != ACTIVELY_DRAGGING) {
+        doSelectionToggle(evt);
+      }
+    } finally {
+      pointerDownWidget = null;
+      dragEndCleanup();
+    }
+  }
+
+  private void setPosition(int x, int y) {
+    context.mouseX = x;
+    context.mouseY = y;
+    context.desiredDraggableX = x - pointerDownOffsetX;
+    context.desiredDraggableY = y - pointerDownOffsetY;
+  }
+
+  private void startCapturing(int pointerId) {
+    assert capturedPointerListener == null;
+    this.pointerId = pointerId;
+    // the boundary panel is never re-parented during a drag, so it keeps the pointer capture
+    capturingElement = context.boundaryPanel.getElement();
+    capturedPointerListener = addCapturedPointerListener(capturingElement, pointerId);
+  }
+
+  private void startDragging() {
+    context.dragStartCleanup();
+    try {
+      context.dragController.previewDragStart();
+    } catch (VetoDragException ex) {
+      context.vetoException = ex;
+      pointerDownWidget = null;
+      dragEndCleanup();
+      return;
+    }
+    context.dragController.dragStart();
+    dragging = DRAGGING_NO_MOVEMENT_YET;
+  }
+
+  private void stopCapturing() {
+    if (capturedPointerListener != null) {
+      removeCapturedPointerListener(capturingElement, pointerId, capturedPointerListener);
+      capturedPointerListener = null;
+      capturingElement = null;
+    }
+  }
+
+  private boolean toggleKey(NativeEvent evt) {
+    return evt.getCtrlKey() || evt.getMetaKey();
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client;
+
+/**
+ * {@link CacheInvalidationPolicy} which rebuilds the drop target cache whenever a fixed period has
+ * elapsed since the last rebuild. This is the default policy.
+ */
+public class TimedCacheInvalidationPolicy implements CacheInvalidationPolicy {
+
+  /**
+   * Default period between cache rebuilds, short enough that drop targets which move during a
+   * drag are noticed within a few pointer moves, yet long enough that the rebuild is not repeated
+   * on every one. To use a different period, pass a policy created with
+   * {@link #TimedCacheInvalidationPolicy(int)} to
+   * {@link PickupDragController#setCacheInvalidationPolicy(CacheInvalidationPolicy)}.
+   */
+  private static final int DEFAULT_PERIOD_MILLIS = 100;
+
+  private long lastResetCacheTimeMillis;
+
+  private final int periodMillis;
+
+  /**
+   * Create a policy which rebuilds the cache every 100 milliseconds.
+   */
+  public TimedCacheInvalidationPolicy() {
+    this(DEFAULT_PERIOD_MILLIS);
+  }
+
+  /**
+   * Create a policy which rebuilds the cache at the given interval.
+   *
+   * @param periodMillis minimum time between cache rebuilds, in milliseconds
+   */
+  public TimedCacheInvalidationPolicy(int periodMillis) {
+    assert periodMillis >= 0;
+    this.periodMillis = periodMillis;
+  }
+
+  /**
+   * Get the minimum time between cache rebuilds.
+   *
+   * @return the period in milliseconds
+   */
+  public int getPeriodMillis() {
+    return periodMillis;
+  }
+
+  @Override
+  public void onDragEnd(PickupDragController dragController) {
+  }
+
+  @Override
+  public void onDragMove(PickupDragController dragController) {
+    long timeMillis = System.currentTimeMillis();
+    if (timeMillis - lastResetCacheTimeMillis >= periodMillis) {
+      lastResetCacheTimeMillis = timeMillis;
+      dragController.resetCache();
+    }
+  }
+
+  @Override
+  public void onDragStart(PickupDragController dragController) {
+    lastResetCacheTimeMillis = System.currentTimeMillis();
+  }
+}
@@ -14,12 +14,12 @@
 package com.finarx.gwt.dnd.client.drop;
 
 import com.finarx.gwt.dnd.client.DragContext;
-import com.finarx.gwt.dnd.client.util.DragClientBundle;
+import com.finarx.gwt.dnd.client.DragGeometrySnapshot;
+import com.finarx.gwt.dnd.client.PickupDragController;
+import com.finarx.gwt.dnd.client.util.LayoutScheduler;
 import com.finarx.gwt.dnd.client.util.WidgetLocation;
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
 import com.google.gwt.user.client.ui.AbsolutePanel;
-import com.google.gwt.user.client.ui.Label;
-import com.google.gwt.user.client.ui.RootPanel;
-import com.google.gwt.user.client.ui.SimplePanel;
 import com.google.gwt.user.client.ui.Widget;
 
 import com.finarx.gwt.dnd.client.util.DOMUtil;
@@ -46,6 +46,13 @@ public class AbsolutePositionDropController extends AbstractPositioningDropContr
 
     final int offsetWidth;
 
+    /**
+     * The location at which the positioner was last placed in the drop target.
+     */
+    int placedX = Integer.MIN_VALUE;
+
+    int placedY = Integer.MIN_VALUE;
+
     Widget positioner = null;
 
     final Widget widget;
@@ -57,8 +64,6 @@ public class AbsolutePositionDropController extends AbstractPositioningDropContr
     }
   }
 
-  private static final Label DUMMY_LABEL_IE_QUIRKS_MODE_OFFSET_HEIGHT = new Label("x");
-
   final ArrayList<Draggable> draggableList = new ArrayList<Draggable>();
 
   final AbsolutePanel dropTarget;
@@ -71,6 +76,42 @@ public class AbsolutePositionDropController extends AbstractPositioningDropContr
 
   int dropTargetOffsetY;
 
+  /**
+   * Places the positioners at their desired locations, and optionally scrolls the last one into
+   * view, once the current layout frame ends. Each positioner is added to the drop target once;
+   * after that only its coordinates are written, and only when they changed.
+   */
+  private final ScheduledCommand placePositioners = new ScheduledCommand() {
+    @Override
+    public void execute() {
+      positionersScheduled = false;
+      for (int i = 0; i < draggableList.size(); i++) {
+        Draggable draggable = draggableList.get(i);
+        if (draggable.positioner.getParent() != dropTarget) {
+          dropTarget.add(draggable.positioner, draggable.desiredX, draggable.desiredY);
+        } else if (draggable.desiredX != draggable.placedX
+            || draggable.desiredY != draggable.placedY) {
+          DOMUtil.fastSetElementPosition(draggable.positioner.getElement(), draggable.desiredX,
+              draggable.desiredY);
+        } else {
+          continue;
+        }
+        draggable.placedX = draggable.desiredX;
+        draggable.placedY = draggable.desiredY;
+      }
+      if (scrollIntoView && !draggableList.isEmpty()) {
+        draggableList.get(draggableList.size() - 1).positioner.getElement().scrollIntoView();
+      }
+    }
+  };
+
+  /**
+   * Whether {@link #placePositioners} is pending in the current layout frame.
+   */
+  private boolean positionersScheduled;
+
+  private boolean scrollIntoView;
+
   /**
    * Basic constructor.
    * 
@@ -112,6 +153,10 @@ public class AbsolutePositionDropController extends AbstractPositioningDropContr
     dropTargetClientWidth = DOMUtil.getClientWidth(dropTarget.getElement());
     dropTargetClientHeight = DOMUtil.getClientHeight(dropTarget.getElement());
     calcDropTargetOffset();
+    if (context.getGeometrySnapshot() != null) {
+      context.getGeometrySnapshot().setTargetOffset(dropTarget, dropTargetOffsetX,
+          dropTargetOffsetY);
+    }
 
     int draggableAbsoluteLeft = context.draggable.getAbsoluteLeft();
     int draggableAbsoluteTop = context.draggable.getAbsoluteTop();
@@ -122,61 +167,80 @@ public class AbsolutePositionDropController extends AbstractPositioningDropContr
       draggable.relativeY = widget.getAbsoluteTop() - draggableAbsoluteTop;
       draggableList.add(draggable);
     }
+    updatePositioners(context);
   }
 
   @Override
   public void onLeave(DragContext context) {
+    final ArrayList<Widget> positioners = new ArrayList<Widget>();
     for (Draggable draggable : draggableList) {
-      draggable.positioner.removeFromParent();
+      positioners.add(draggable.positioner);
     }
     draggableList.clear();
+    LayoutScheduler.mutate(new ScheduledCommand() {
+      @Override
+      public void execute() {
+        for (Widget positioner : positioners) {
+          PositionerFactory.release(positioner);
+        }
+      }
+    });
     super.onLeave(context);
   }
 
   @Override
   public void onMove(DragContext context) {
     super.onMove(context);
-    for (Draggable draggable : draggableList) {
-      draggable.desiredX = context.desiredDraggableX - dropTargetOffsetX + draggable.relativeX;
-      draggable.desiredY = context.desiredDraggableY - dropTargetOffsetY + draggable.relativeY;
-      draggable.desiredX = Math.max(0, Math.min(draggable.desiredX, dropTargetClientWidth
-          - draggable.offsetWidth));
-      draggable.desiredY = Math.max(0, Math.min(draggable.desiredY, dropTargetClientHeight
-          - draggable.offsetHeight));
-      dropTarget.add(draggable.positioner, draggable.desiredX, draggable.desiredY);
-    }
-    if (context.dragController.getBehaviorScrollIntoView()) {
-      draggableList.get(draggableList.size() - 1).positioner.getElement().scrollIntoView();
-    }
-
     // may have changed due to scrollIntoView() or user driven scrolling
-    calcDropTargetOffset();
+    DragGeometrySnapshot snapshot = context.getGeometrySnapshot();
+    if (snapshot != null && snapshot.hasTargetOffset(dropTarget)) {
+      dropTargetOffsetX = snapshot.getTargetOffsetX();
+      dropTargetOffsetY = snapshot.getTargetOffsetY();
+    } else {
+      calcDropTargetOffset();
+      if (snapshot != null) {
+        snapshot.setTargetOffset(dropTarget, dropTargetOffsetX, dropTargetOffsetY);
+      }
+    }
+    updatePositioners(context);
   }
 
   Widget makePositioner(Widget reference) {
-    // Use two widgets so that setPixelSize() consistently affects dimensions
-    // excluding positioner border in quirks and strict modes
-    SimplePanel outer = new SimplePanel();
-    outer.addStyleName(DragClientBundle.INSTANCE.css().positioner());
-    outer.getElement().getStyle().setProperty("margin", "0px");
-
-    // place off screen for border calculation
-    RootPanel.get().add(outer, -500, -500);
-
-    // Ensure IE quirks mode returns valid outer.offsetHeight, and thus valid
-    // DOMUtil.getVerticalBorders(outer)
-    outer.setWidget(DUMMY_LABEL_IE_QUIRKS_MODE_OFFSET_HEIGHT);
+    return PositionerFactory.newPositioner(reference.getOffsetWidth(),
+        reference.getOffsetHeight());
+  }
 
-    SimplePanel inner = new SimplePanel();
-    inner.getElement().getStyle().setProperty("margin", "0px");
-    inner.getElement().getStyle().setProperty("border", "none");
-    int offsetWidth = reference.getOffsetWidth() - DOMUtil.getHorizontalBorders(outer);
-    int offsetHeight = reference.getOffsetHeight() - DOMUtil.getVerticalBorders(outer);
-    inner.setPixelSize(offsetWidth, offsetHeight);
+  /**
+   * Called for each desired positioner location, after it has been constrained to the drop
+   * target. Override to further constrain positioners, for example to a grid.
+   * 
+   * @param left the desired horizontal location relative to the drop target
+   * @return the constrained horizontal location
+   */
+  int snapLeft(int left) {
+    return left;
+  }
 
-    outer.setWidget(inner);
+  /**
+   * @see #snapLeft(int)
+   * 
+   * @param top the desired vertical location relative to the drop target
+   * @return the constrained vertical location
+   */
+  int snapTop(int top) {
+    return top;
+  }
 
-    return outer;
+  /**
+   * Place the positioners at their desired locations when the current layout frame ends. Placing
+   * them is scheduled at most once per frame, so subclasses may adjust the desired locations after
+   * calling this method.
+   */
+  void schedulePositioners() {
+    if (!positionersScheduled) {
+      positionersScheduled = true;
+      LayoutScheduler.mutate(placePositioners);
+    }
   }
 
   private void calcDropTargetOffset() {
@@ -184,6 +248,22 @@ public class AbsolutePositionDropController extends AbstractPositioningDropContr
     dropTargetOffsetX = dropTargetLocation.getLeft()
         + DOMUtil.getBorderLeft(dropTarget.getElement());
     dropTargetOffsetY = dropTargetLocation.getTop() + DOMUtil.getBorderTop(dropTarget.getElement());
-    // System.out.println(dropTargetOffsetX + ", " + dropTargetOffsetY);
+  }
+
+  private void updatePositioners(DragContext context) {
+    for (int i = 0; i < draggableList.size(); i++) {
+      Draggable draggable = draggableList.get(i);
+      int left = context.desiredDraggableX - dropTargetOffsetX + draggable.relativeX;
+      int top = context.desiredDraggableY - dropTargetOffsetY + draggable.relativeY;
+      left = Math.max(0, Math.min(left, dropTargetClientWidth - draggable.offsetWidth));
+      top = Math.max(0, Math.min(top, dropTargetClientHeight - draggable.offsetHeight));
+      draggable.desiredX = snapLeft(left);
+      draggable.desiredY = snapTop(top);
+    }
+    // auto scrolling takes the place of scrolling positioners into view
+    scrollIntoView = context.dragController.getBehaviorScrollIntoView()
+        && !(context.dragController instanceof PickupDragController
+            && ((PickupDragController) context.dragController).getBehaviorAutoScroll());
+    schedulePositioners();
   }
 }
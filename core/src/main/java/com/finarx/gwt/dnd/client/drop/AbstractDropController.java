@@ -14,9 +14,13 @@
 package com.finarx.gwt.dnd.client.drop;
 
 import com.finarx.gwt.dnd.client.DragContext;
+import com.finarx.gwt.dnd.client.DragGeometrySnapshot;
+import com.finarx.gwt.dnd.client.DropFeedbackOverlay;
 import com.finarx.gwt.dnd.client.VetoDragException;
+import com.finarx.gwt.dnd.client.util.Area;
 import com.finarx.gwt.dnd.client.util.DOMUtil;
 import com.finarx.gwt.dnd.client.util.DragClientBundle;
+import com.finarx.gwt.dnd.client.util.WidgetArea;
 import com.google.gwt.user.client.ui.Widget;
 
 /**
@@ -50,12 +54,25 @@ public abstract class AbstractDropController implements DropController {
 
   @Override
   public void onEnter(DragContext context) {
-    dropTarget.addStyleName(DragClientBundle.INSTANCE.css().dropTargetEngage());
+    DropFeedbackOverlay overlay = context.getDropFeedbackOverlay();
+    if (overlay != null) {
+      // reuse the area the drag controller measured to find the drop target, if any
+      DragGeometrySnapshot snapshot = context.getGeometrySnapshot();
+      Area area = snapshot == null ? null : snapshot.getTargetArea(dropTarget);
+      overlay.engage(area != null ? area : new WidgetArea(dropTarget, null));
+    } else {
+      dropTarget.addStyleName(DragClientBundle.INSTANCE.css().dropTargetEngage());
+    }
   }
 
   @Override
   public void onLeave(DragContext context) {
-    dropTarget.removeStyleName(DragClientBundle.INSTANCE.css().dropTargetEngage());
+    DropFeedbackOverlay overlay = context.getDropFeedbackOverlay();
+    if (overlay != null) {
+      overlay.disengage();
+    } else {
+      dropTarget.removeStyleName(DragClientBundle.INSTANCE.css().dropTargetEngage());
+    }
   }
 
   @Override
@@ -15,8 +15,10 @@ package com.finarx.gwt.dnd.client.drop;
 
 import com.finarx.gwt.dnd.client.DragContext;
 import com.finarx.gwt.dnd.client.VetoDragException;
-import com.finarx.gwt.dnd.client.util.CoordinateLocation;
 import com.finarx.gwt.dnd.client.util.DOMUtil;
+import com.finarx.gwt.dnd.client.util.LayoutScheduler;
+import com.finarx.gwt.dnd.client.util.MutableLocation;
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
 import com.google.gwt.user.client.ui.IndexedPanel;
 import com.google.gwt.user.client.ui.Panel;
 import com.google.gwt.user.client.ui.Widget;
@@ -35,8 +37,34 @@ public abstract class AbstractIndexedDropController extends AbstractPositioningD
 
   private IndexedPanel dropTarget;
 
+  /**
+   * Moves the positioner to {@link #pendingTargetIndex} once the current layout frame ends.
+   */
+  private final ScheduledCommand movePositionerCommand = new ScheduledCommand() {
+    @Override
+    public void execute() {
+      positionerMoveScheduled = false;
+      movePositioner(pendingTargetIndex);
+    }
+  };
+
+  /**
+   * The target index of the most recent move, applied by {@link #movePositionerCommand}.
+   */
+  private int pendingTargetIndex;
+
+  /**
+   * The pointer location, reused on every move.
+   */
+  private final MutableLocation pointerLocation = new MutableLocation();
+
   private Widget positioner = null;
 
+  /**
+   * Whether {@link #movePositionerCommand} is pending in the current layout frame.
+   */
+  private boolean positionerMoveScheduled;
+
   /**
    * @see FlowPanelDropController#FlowPanelDropController(com.google.gwt.user.client.ui.FlowPanel)
    * 
@@ -60,36 +88,40 @@ public abstract class AbstractIndexedDropController extends AbstractPositioningD
   public void onEnter(DragContext context) {
     super.onEnter(context);
     positioner = newPositioner(context);
-    int targetIndex = DOMUtil.findIntersect(dropTarget, new CoordinateLocation(context.mouseX,
-        context.mouseY), getLocationWidgetComparator());
-    insert(positioner, targetIndex);
+    final Widget newPositioner = positioner;
+    final int targetIndex = DOMUtil.findIntersect(dropTarget,
+        pointerLocation.set(context.mouseX, context.mouseY), getLocationWidgetComparator());
+    LayoutScheduler.mutate(new ScheduledCommand() {
+      @Override
+      public void execute() {
+        if (positioner == newPositioner) {
+          insert(newPositioner, targetIndex);
+        }
+      }
+    });
   }
 
   @Override
   public void onLeave(DragContext context) {
-    positioner.removeFromParent();
+    final Widget oldPositioner = positioner;
     positioner = null;
+    LayoutScheduler.mutate(new ScheduledCommand() {
+      @Override
+      public void execute() {
+        PositionerFactory.release(oldPositioner);
+      }
+    });
     super.onLeave(context);
   }
 
   @Override
   public void onMove(DragContext context) {
     super.onMove(context);
-    int targetIndex = DOMUtil.findIntersect(dropTarget, new CoordinateLocation(context.mouseX,
-        context.mouseY), getLocationWidgetComparator());
-
-    // check that positioner not already in the correct location
-    int positionerIndex = dropTarget.getWidgetIndex(positioner);
-
-    if (positionerIndex != targetIndex && (positionerIndex != targetIndex - 1 || targetIndex == 0)) {
-      if (positionerIndex == 0 && dropTarget.getWidgetCount() == 1) {
-        // do nothing, the positioner is the only widget
-      } else if (targetIndex == -1) {
-        // outside drop target, so remove positioner to indicate a drop will not happen
-        positioner.removeFromParent();
-      } else {
-        insert(positioner, targetIndex);
-      }
+    pendingTargetIndex = DOMUtil.findIntersect(dropTarget,
+        pointerLocation.set(context.mouseX, context.mouseY), getLocationWidgetComparator());
+    if (!positionerMoveScheduled) {
+      positionerMoveScheduled = true;
+      LayoutScheduler.mutate(movePositionerCommand);
     }
   }
 
@@ -124,10 +156,35 @@ public abstract class AbstractIndexedDropController extends AbstractPositioningD
    * your positioner. The positioner widget may not have any CSS borders or margins, although there
    * are no such restrictions on the children of the positioner widget. If borders and/or margins
    * are desired, wrap that widget in a {@link com.google.gwt.user.client.ui.SimplePanel} with a
-   * <code>0px</code> border and margin.
+   * <code>0px</code> border and margin. {@link PositionerFactory} provides such positioners,
+   * pooled and reused across drags.
    * 
    * @param context The current drag context.
    * @return a new positioner widget
    */
   protected abstract Widget newPositioner(DragContext context);
+
+  /**
+   * Move the positioner to the provided index, unless it is already there.
+   */
+  private void movePositioner(int targetIndex) {
+    if (positioner == null) {
+      // left the drop target before the move was applied
+      return;
+    }
+
+    // check that positioner not already in the correct location
+    int positionerIndex = dropTarget.getWidgetIndex(positioner);
+
+    if (positionerIndex != targetIndex && (positionerIndex != targetIndex - 1 || targetIndex == 0)) {
+      if (positionerIndex == 0 && dropTarget.getWidgetCount() == 1) {
+        // do nothing, the positioner is the only widget
+      } else if (targetIndex == -1) {
+        // outside drop target, so remove positioner to indicate a drop will not happen
+        positioner.removeFromParent();
+      } else {
+        insert(positioner, targetIndex);
+      }
+    }
+  }
 }
@@ -14,14 +14,25 @@
 package com.finarx.gwt.dnd.client.drop;
 
 import com.finarx.gwt.dnd.client.DragContext;
+import com.finarx.gwt.dnd.client.DropFeedbackOverlay;
+import com.finarx.gwt.dnd.client.util.Area;
+import com.finarx.gwt.dnd.client.util.ChildAreaTable;
+import com.finarx.gwt.dnd.client.util.CoordinateArea;
 import com.finarx.gwt.dnd.client.util.CoordinateLocation;
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
 import com.google.gwt.user.client.ui.InsertPanel;
 import com.google.gwt.user.client.ui.Panel;
 import com.google.gwt.user.client.ui.Widget;
 
 import com.finarx.gwt.dnd.client.VetoDragException;
 import com.finarx.gwt.dnd.client.util.DOMUtil;
+import com.finarx.gwt.dnd.client.util.LayoutCache;
+import com.finarx.gwt.dnd.client.util.LayoutScheduler;
+import com.finarx.gwt.dnd.client.util.Location;
 import com.finarx.gwt.dnd.client.util.LocationWidgetComparator;
+import com.finarx.gwt.dnd.client.util.MutableLocation;
+import com.finarx.gwt.dnd.client.util.UniformChildGrid;
+import com.finarx.gwt.dnd.client.util.WidgetArea;
 
 /**
  * A {@link DropController} for {@link InsertPanel} drop targets.
@@ -33,10 +44,86 @@ public abstract class AbstractInsertPanelDropController extends AbstractPosition
    */
   protected final InsertPanel dropTarget;
 
+  /**
+   * Child areas measured in {@link #onEnter(DragContext)}, or <code>null</code> when children are
+   * measured on every move.
+   */
+  private ChildAreaTable childAreas;
+
+  /**
+   * The {@link LayoutCache#getScrollGeneration() scroll generation} of {@link #childAreas}.
+   */
+  private int childAreasScrollGeneration;
+
   private int dropIndex;
 
+  /**
+   * Index of the insertion marker shown in the drop feedback overlay, or <code>-1</code>.
+   */
+  private int markerIndex = -1;
+
+  /**
+   * Moves the positioner to {@link #pendingTargetIndex} once the current layout frame ends.
+   */
+  private final ScheduledCommand movePositionerCommand = new ScheduledCommand() {
+    @Override
+    public void execute() {
+      positionerMoveScheduled = false;
+      movePositioner(pendingTargetIndex);
+    }
+  };
+
+  /**
+   * The drop feedback overlay while engaged in overlay mode, or <code>null</code> when a positioner
+   * is inserted into the drop target instead.
+   */
+  private DropFeedbackOverlay overlay;
+
+  /**
+   * The target index of the most recent move, applied by {@link #movePositionerCommand}.
+   */
+  private int pendingTargetIndex;
+
+  /**
+   * The pointer location, reused on every move.
+   */
+  private final MutableLocation pointerLocation = new MutableLocation();
+
   private Widget positioner = null;
 
+  private Location positionerDisplacement;
+
+  /**
+   * Whether {@link #movePositionerCommand} is pending in the current layout frame.
+   */
+  private boolean positionerMoveScheduled;
+
+  /**
+   * Child layout measured in {@link #onEnter(DragContext)} in uniform child size mode, or
+   * <code>null</code>.
+   */
+  private UniformChildGrid uniformChildGrid;
+
+  /**
+   * The {@link LayoutCache#getScrollGeneration() scroll generation} of {@link #uniformChildGrid}.
+   */
+  private int uniformChildGridScrollGeneration;
+
+  /**
+   * Declared child height, or <code>0</code> to measure it.
+   */
+  private int uniformChildHeight;
+
+  /**
+   * Whether or not all children are known to have the same size.
+   */
+  private boolean uniformChildSize = false;
+
+  /**
+   * Declared child width, or <code>0</code> to measure it.
+   */
+  private int uniformChildWidth;
+
   /**
    * @see FlowPanelDropController#FlowPanelDropController(com.google.gwt.user.client.ui.FlowPanel)
    * 
@@ -47,6 +134,33 @@ public abstract class AbstractInsertPanelDropController extends AbstractPosition
     this.dropTarget = dropTarget;
   }
 
+  /**
+   * Determine whether or not the insertion index is computed from a uniform child size.
+   *
+   * @return <code>true</code> if uniform child size behavior is enabled
+   */
+  public boolean getBehaviorUniformChildSize() {
+    return uniformChildSize;
+  }
+
+  /**
+   * Get the declared distance between the top edges of children placed one below the other.
+   *
+   * @return the height in pixels, or <code>0</code> if it is measured
+   */
+  public int getUniformChildHeight() {
+    return uniformChildHeight;
+  }
+
+  /**
+   * Get the declared distance between the leading edges of children placed side by side.
+   *
+   * @return the width in pixels, or <code>0</code> if it is measured
+   */
+  public int getUniformChildWidth() {
+    return uniformChildWidth;
+  }
+
   @Override
   public void onDrop(DragContext context) {
     assert dropIndex != -1 : "Should not happen after onPreviewDrop did not veto";
@@ -61,55 +175,143 @@ public abstract class AbstractInsertPanelDropController extends AbstractPosition
   @Override
   public void onEnter(DragContext context) {
     super.onEnter(context);
+    overlay = context.getDropFeedbackOverlay();
+    if (overlay != null) {
+      // nothing is inserted, so the children stay where they are
+      positionerDisplacement = new CoordinateLocation(0, 0);
+      updateInsertionMarker(findTargetIndex(context));
+      return;
+    }
     positioner = newPositioner(context);
-    int targetIndex = DOMUtil.findIntersect(dropTarget, new CoordinateLocation(context.mouseX,
-        context.mouseY), getLocationWidgetComparator());
-    dropTarget.insert(positioner, targetIndex);
+    positionerDisplacement = getPositionerDisplacement(PositionerFactory.getWidth(positioner),
+        PositionerFactory.getHeight(positioner));
+    final Widget newPositioner = positioner;
+    final int targetIndex = findTargetIndex(context);
+    LayoutScheduler.mutate(new ScheduledCommand() {
+      @Override
+      public void execute() {
+        if (positioner == newPositioner) {
+          dropTarget.insert(newPositioner, targetIndex);
+        }
+      }
+    });
   }
 
   @Override
   public void onLeave(DragContext context) {
-    positioner.removeFromParent();
+    if (overlay != null) {
+      overlay.hideInsertionMarker();
+      overlay = null;
+      markerIndex = -1;
+      positionerDisplacement = null;
+      childAreas = null;
+      uniformChildGrid = null;
+      super.onLeave(context);
+      return;
+    }
+    final Widget oldPositioner = positioner;
     positioner = null;
+    positionerDisplacement = null;
+    childAreas = null;
+    uniformChildGrid = null;
+    LayoutScheduler.mutate(new ScheduledCommand() {
+      @Override
+      public void execute() {
+        PositionerFactory.release(oldPositioner);
+      }
+    });
     super.onLeave(context);
   }
 
   @Override
   public void onMove(DragContext context) {
     super.onMove(context);
-    int targetIndex = DOMUtil.findIntersect(dropTarget, new CoordinateLocation(context.mouseX,
-        context.mouseY), getLocationWidgetComparator());
-
-    // check that positioner not already in the correct location
-    int positionerIndex = dropTarget.getWidgetIndex(positioner);
-
-    if (positionerIndex != targetIndex && (positionerIndex != targetIndex - 1 || targetIndex == 0)) {
-      if (positionerIndex == 0 && dropTarget.getWidgetCount() == 1) {
-        // do nothing, the positioner is the only widget
-      } else if (targetIndex == -1) {
-        // outside drop target, so remove positioner to indicate a drop will not happen
-        positioner.removeFromParent();
-      } else {
-        dropTarget.insert(positioner, targetIndex);
-      }
+    if (overlay != null) {
+      updateInsertionMarker(findTargetIndex(context));
+      return;
+    }
+    pendingTargetIndex = findTargetIndex(context);
+    if (!positionerMoveScheduled) {
+      positionerMoveScheduled = true;
+      LayoutScheduler.mutate(movePositionerCommand);
     }
   }
 
   @Override
   public void onPreviewDrop(DragContext context) throws VetoDragException {
-    dropIndex = dropTarget.getWidgetIndex(positioner);
+    dropIndex = overlay != null ? markerIndex : dropTarget.getWidgetIndex(positioner);
     if (dropIndex == -1) {
       throw new VetoDragException();
     }
     super.onPreviewDrop(context);
   }
 
+  /**
+   * Set whether or not all children of the drop target have the same size and are placed at a
+   * fixed pitch, in a single column, a single row, or rows which wrap after a fixed number of
+   * columns. The layout is then measured once when a drag enters the drop target, from the drop
+   * target and its first children, and the insertion index is computed arithmetically from the
+   * pointer location, without reading any DOM geometry as the pointer moves. The positioner is
+   * assumed to take up no more than one child's place. Defaults to <code>false</code>.
+   *
+   * @param uniformChildSize <code>true</code> to enable uniform child size behavior
+   * @see #setUniformChildSize(int, int)
+   */
+  public void setBehaviorUniformChildSize(boolean uniformChildSize) {
+    this.uniformChildSize = uniformChildSize;
+  }
+
+  /**
+   * Declare the size of the children of the drop target, including any spacing or margins between
+   * them, and enable {@link #setBehaviorUniformChildSize(boolean) uniform child size behavior}.
+   * Declared sizes are not measured; only the location of the first child is.
+   *
+   * @param width the distance between the leading edges of children placed side by side, or
+   *          <code>0</code> to measure it
+   * @param height the distance between the top edges of children placed one below the other, or
+   *          <code>0</code> to measure it
+   */
+  public void setUniformChildSize(int width, int height) {
+    assert width >= 0 && height >= 0;
+    uniformChildWidth = width;
+    uniformChildHeight = height;
+    uniformChildSize = true;
+  }
+
   /**
    * Required implementation method which provides the desired comparator strategy.
    * @return the comparator strategy to be used
    */
   protected abstract LocationWidgetComparator getLocationWidgetComparator();
 
+  /**
+   * Determine how far the positioner displaces the children which follow it. Knowing this allows
+   * the positioner index to be resolved against child areas measured once, when the drag enters
+   * the drop target, instead of measuring children on every move; the areas are measured again
+   * only when children are added or removed, or something is scrolled. Return <code>null</code>,
+   * the default, for panels whose children wrap or otherwise move unpredictably when the
+   * positioner is inserted, which are measured on every move.
+   * 
+   * @param positionerWidth the total width of the new positioner
+   * @param positionerHeight the total height of the new positioner
+   * @return the displacement in left-to-right terms, or <code>null</code>
+   */
+  protected Location getPositionerDisplacement(int positionerWidth, int positionerHeight) {
+    return null;
+  }
+
+  /**
+   * Determine whether the insertion marker shown in the drop feedback overlay is a horizontal line
+   * between children placed one below the other, or a vertical line between children placed side
+   * by side. The default follows the {@link #getLocationWidgetComparator() comparator strategy}.
+   * 
+   * @return <code>true</code> for a horizontal insertion marker
+   * @see com.finarx.gwt.dnd.client.PickupDragController#setBehaviorDropFeedbackOverlay(boolean)
+   */
+  protected boolean isInsertionMarkerHorizontal() {
+    return getLocationWidgetComparator() == LocationWidgetComparator.BOTTOM_HALF_COMPARATOR;
+  }
+
   /**
    * Called by {@link AbstractInsertPanelDropController#onEnter(DragContext)} to create a new
    * positioner widget for this {@link InsertPanel} drop target. Override this method to customize
@@ -117,10 +319,100 @@ public abstract class AbstractInsertPanelDropController extends AbstractPosition
    * your positioner. The positioner widget may not have any CSS borders or margins, although there
    * are no such restrictions on the children of the positioner widget. If borders and/or margins
    * are desired, wrap that widget in a {@link com.google.gwt.user.client.ui.SimplePanel} with a
-   * <code>0px</code> border and margin.
+   * <code>0px</code> border and margin. {@link PositionerFactory} provides such positioners,
+   * pooled and reused across drags.
    * 
    * @param context The current drag context.
    * @return a new positioner widget
    */
   protected abstract Widget newPositioner(DragContext context);
+
+  /**
+   * Determine the index before which the positioner belongs, among all widgets of the drop target
+   * including the positioner.
+   */
+  private int findTargetIndex(DragContext context) {
+    Location location = pointerLocation.set(context.mouseX, context.mouseY);
+    if (uniformChildSize) {
+      if (uniformChildGrid == null) {
+        uniformChildGrid = new UniformChildGrid(dropTarget, positioner, uniformChildWidth,
+            uniformChildHeight, getLocationWidgetComparator());
+        uniformChildGridScrollGeneration = LayoutCache.getScrollGeneration();
+      } else if (uniformChildGridScrollGeneration != LayoutCache.getScrollGeneration()) {
+        uniformChildGrid.locate();
+        uniformChildGridScrollGeneration = LayoutCache.getScrollGeneration();
+      }
+      int positionerIndex = positioner == null ? -1 : dropTarget.getWidgetIndex(positioner);
+      int childCount = dropTarget.getWidgetCount() - (positionerIndex == -1 ? 0 : 1);
+      int childIndex = uniformChildGrid.findIntersect(location, childCount);
+      return positionerIndex != -1 && childIndex > positionerIndex ? childIndex + 1 : childIndex;
+    }
+    if (positionerDisplacement == null) {
+      return DOMUtil.findIntersect(dropTarget, location, getLocationWidgetComparator());
+    }
+
+    int positionerIndex = positioner == null ? -1 : dropTarget.getWidgetIndex(positioner);
+    int childCount = dropTarget.getWidgetCount() - (positionerIndex == -1 ? 0 : 1);
+    if (childAreas == null || childAreas.size() != childCount
+        || childAreasScrollGeneration != LayoutCache.getScrollGeneration()) {
+      childAreas = new ChildAreaTable(dropTarget, positioner, positionerDisplacement.getLeft(),
+          positionerDisplacement.getTop());
+      childAreasScrollGeneration = LayoutCache.getScrollGeneration();
+    }
+    int childIndex = childAreas.findIntersect(location, getLocationWidgetComparator(),
+        positionerIndex);
+    return positionerIndex != -1 && childIndex > positionerIndex ? childIndex + 1 : childIndex;
+  }
+
+  /**
+   * Get the area of the insertion marker for an index.
+   */
+  private Area getInsertionMarkerArea(int index) {
+    if (uniformChildGrid != null && dropTarget.getWidgetCount() > 0) {
+      return uniformChildGrid.getInsertionArea(index, dropTarget.getWidgetCount(),
+          isInsertionMarkerHorizontal());
+    }
+    if (childAreas != null && childAreas.size() > 0) {
+      return childAreas.getInsertionArea(index, isInsertionMarkerHorizontal());
+    }
+    Area area = new WidgetArea((Widget) dropTarget, null);
+    if (isInsertionMarkerHorizontal()) {
+      return new CoordinateArea(area.getLeft(), area.getTop(), area.getRight(), area.getTop());
+    }
+    return new CoordinateArea(area.getLeft(), area.getTop(), area.getLeft(), area.getBottom());
+  }
+
+  /**
+   * Move the positioner to the provided index, unless it is already there.
+   */
+  private void movePositioner(int targetIndex) {
+    if (positioner == null) {
+      // left the drop target before the move was applied
+      return;
+    }
+
+    // check that positioner not already in the correct location
+    int positionerIndex = dropTarget.getWidgetIndex(positioner);
+
+    if (positionerIndex != targetIndex && (positionerIndex != targetIndex - 1 || targetIndex == 0)) {
+      if (positionerIndex == 0 && dropTarget.getWidgetCount() == 1) {
+        // do nothing, the positioner is the only widget
+      } else if (targetIndex == -1) {
+        // outside drop target, so remove positioner to indicate a drop will not happen
+        positioner.removeFromParent();
+      } else {
+        dropTarget.insert(positioner, targetIndex);
+      }
+    }
+  }
+
+  /**
+   * Show the insertion marker at the provided index, unless it is already there.
+   */
+  private void updateInsertionMarker(int index) {
+    if (index != markerIndex) {
+      markerIndex = index;
+      overlay.showInsertionMarker(getInsertionMarkerArea(index));
+    }
+  }
 }
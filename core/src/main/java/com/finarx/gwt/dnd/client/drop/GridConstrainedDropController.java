@@ -13,7 +13,6 @@
  */
 package com.finarx.gwt.dnd.client.drop;
 
-import com.finarx.gwt.dnd.client.DragContext;
 import com.google.gwt.user.client.ui.AbsolutePanel;
 import com.google.gwt.user.client.ui.Widget;
 
@@ -43,18 +42,12 @@ public class GridConstrainedDropController extends AbsolutePositionDropControlle
   }
 
   @Override
-  public void onMove(DragContext context) {
-    super.onMove(context);
-    for (Draggable draggable : draggableList) {
-      draggable.desiredX = context.desiredDraggableX - dropTargetOffsetX + draggable.relativeX;
-      draggable.desiredY = context.desiredDraggableY - dropTargetOffsetY + draggable.relativeY;
-      draggable.desiredX = Math.max(0, Math.min(draggable.desiredX, dropTargetClientWidth
-          - draggable.offsetWidth));
-      draggable.desiredY = Math.max(0, Math.min(draggable.desiredY, dropTargetClientHeight
-          - draggable.offsetHeight));
-      draggable.desiredX = Math.round((float) draggable.desiredX / gridX) * gridX;
-      draggable.desiredY = Math.round((float) draggable.desiredY / gridY) * gridY;
-      dropTarget.add(draggable.positioner, draggable.desiredX, draggable.desiredY);
-    }
+  int snapLeft(int left) {
+    return Math.round((float) left / gridX) * gridX;
+  }
+
+  @Override
+  int snapTop(int top) {
+    return Math.round((float) top / gridY) * gridY;
   }
 }
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client.drop;
+
+import com.finarx.gwt.dnd.client.DragContext;
+import com.finarx.gwt.dnd.client.PickupDragController;
+
+/**
+ * Optional interface for {@link DropController DropControllers} which can decide up front whether
+ * they accept the current drag operation. Drop controllers which do not accept it are left out of
+ * the drag controller's drop target cache for the whole drag, so their drop targets are neither
+ * measured nor hit tested, and they are never engaged.
+ *
+ * @see PickupDragController#resetCache()
+ */
+public interface HasDropEligibility {
+
+  /**
+   * Determine whether the drag operation may ever be dropped on this drop controller's drop target.
+   * Called once per drag operation, after the drag has started, so the selected widgets in the
+   * context are available; unlike {@link DropController#onPreviewDrop(DragContext)} the pointer
+   * location and drop controller are not.
+   *
+   * @param context the current drag context
+   * @return <code>true</code> if the drop target is eligible for this drag operation
+   */
+  boolean accepts(DragContext context);
+}
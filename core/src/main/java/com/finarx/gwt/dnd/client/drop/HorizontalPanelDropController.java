@@ -14,13 +14,10 @@
 package com.finarx.gwt.dnd.client.drop;
 
 import com.finarx.gwt.dnd.client.DragContext;
-import com.finarx.gwt.dnd.client.util.DOMUtil;
-import com.finarx.gwt.dnd.client.util.DragClientBundle;
+import com.finarx.gwt.dnd.client.util.CoordinateLocation;
+import com.finarx.gwt.dnd.client.util.Location;
 import com.finarx.gwt.dnd.client.util.LocationWidgetComparator;
 import com.google.gwt.user.client.ui.HorizontalPanel;
-import com.google.gwt.user.client.ui.Label;
-import com.google.gwt.user.client.ui.RootPanel;
-import com.google.gwt.user.client.ui.SimplePanel;
 import com.google.gwt.user.client.ui.Widget;
 
 /**
@@ -28,11 +25,6 @@ import com.google.gwt.user.client.ui.Widget;
  */
 public class HorizontalPanelDropController extends AbstractInsertPanelDropController {
 
-  /**
-   * Label for IE quirks mode workaround.
-   */
-  private static final Label DUMMY_LABEL_IE_QUIRKS_MODE_OFFSET_HEIGHT = new Label("x");
-
   /**
    * Construct an {@link HorizontalPanelDropController}.
    * 
@@ -48,19 +40,13 @@ public class HorizontalPanelDropController extends AbstractInsertPanelDropContro
   }
 
   @Override
-  protected Widget newPositioner(DragContext context) {
-    // Use two widgets so that setPixelSize() consistently affects dimensions
-    // excluding positioner border in quirks and strict modes
-    SimplePanel outer = new SimplePanel();
-    outer.addStyleName(DragClientBundle.INSTANCE.css().positioner());
-
-    // place off screen for border calculation
-    RootPanel.get().add(outer, -500, -500);
-
-    // Ensure IE quirks mode returns valid outer.offsetHeight, and thus valid
-    // DOMUtil.getVerticalBorders(outer)
-    outer.setWidget(DUMMY_LABEL_IE_QUIRKS_MODE_OFFSET_HEIGHT);
+  protected Location getPositionerDisplacement(int positionerWidth, int positionerHeight) {
+    // the positioner occupies a cell of its own
+    return new CoordinateLocation(positionerWidth + ((HorizontalPanel) dropTarget).getSpacing(), 0);
+  }
 
+  @Override
+  protected Widget newPositioner(DragContext context) {
     int width = 0;
     int height = 0;
     for (Widget widget : context.selectedWidgets) {
@@ -68,12 +54,6 @@ public class HorizontalPanelDropController extends AbstractInsertPanelDropContro
       height = Math.max(height, widget.getOffsetHeight());
     }
 
-    SimplePanel inner = new SimplePanel();
-    inner.setPixelSize(width - DOMUtil.getHorizontalBorders(outer), height
-        - DOMUtil.getVerticalBorders(outer));
-
-    outer.setWidget(inner);
-
-    return outer;
+    return PositionerFactory.newPositioner(width, height);
   }
 }
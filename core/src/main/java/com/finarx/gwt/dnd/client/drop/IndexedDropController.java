@@ -14,13 +14,8 @@
 package com.finarx.gwt.dnd.client.drop;
 
 import com.finarx.gwt.dnd.client.DragContext;
-import com.finarx.gwt.dnd.client.util.DOMUtil;
-import com.finarx.gwt.dnd.client.util.DragClientBundle;
 import com.google.gwt.user.client.ui.HorizontalPanel;
 import com.google.gwt.user.client.ui.IndexedPanel;
-import com.google.gwt.user.client.ui.Label;
-import com.google.gwt.user.client.ui.RootPanel;
-import com.google.gwt.user.client.ui.SimplePanel;
 import com.google.gwt.user.client.ui.VerticalPanel;
 import com.google.gwt.user.client.ui.Widget;
 
@@ -38,11 +33,6 @@ import com.finarx.gwt.dnd.client.util.LocationWidgetComparator;
 @Deprecated
 public class IndexedDropController extends AbstractIndexedDropController {
 
-  /**
-   * Label for IE quirks mode workaround.
-   */
-  private static final Label DUMMY_LABEL_IE_QUIRKS_MODE_OFFSET_HEIGHT = new Label("x");
-
   /**
    * The indexed panel drop target.
    */
@@ -88,18 +78,6 @@ public class IndexedDropController extends AbstractIndexedDropController {
 
   @Override
   protected Widget newPositioner(DragContext context) {
-    // Use two widgets so that setPixelSize() consistently affects dimensions
-    // excluding positioner border in quirks and strict modes
-    SimplePanel outer = new SimplePanel();
-    outer.addStyleName(DragClientBundle.INSTANCE.css().positioner());
-
-    // place off screen for border calculation
-    RootPanel.get().add(outer, -500, -500);
-
-    // Ensure IE quirks mode returns valid outer.offsetHeight, and thus valid
-    // DOMUtil.getVerticalBorders(outer)
-    outer.setWidget(DUMMY_LABEL_IE_QUIRKS_MODE_OFFSET_HEIGHT);
-
     int width = 0;
     int height = 0;
     if (dropTarget instanceof HorizontalPanel) {
@@ -114,12 +92,6 @@ public class IndexedDropController extends AbstractIndexedDropController {
       }
     }
 
-    SimplePanel inner = new SimplePanel();
-    inner.setPixelSize(width - DOMUtil.getHorizontalBorders(outer), height
-        - DOMUtil.getVerticalBorders(outer));
-
-    outer.setWidget(inner);
-
-    return outer;
+    return PositionerFactory.newPositioner(width, height);
   }
 }
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client.drop;
+
+import com.finarx.gwt.dnd.client.util.DOMUtil;
+import com.finarx.gwt.dnd.client.util.DragClientBundle;
+import com.google.gwt.user.client.ui.Label;
+import com.google.gwt.user.client.ui.RootPanel;
+import com.google.gwt.user.client.ui.SimplePanel;
+import com.google.gwt.user.client.ui.Widget;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Shared source of the positioner widgets shown by the panel drop controllers. A positioner is an
+ * outer {@link SimplePanel} carrying the positioner CSS class around a borderless inner
+ * {@link SimplePanel}, so that its total size matches the dragged widgets regardless of the
+ * borders the CSS class applies.
+ *
+ * <p> The borders of each CSS class are measured once, off screen, rather than every time a drag
+ * enters a drop target, and positioners are pooled and reused once their drop controller releases
+ * them. Call {@link #clearCache()} if style sheets affecting positioners change at runtime. </p>
+ */
+public final class PositionerFactory {
+
+  private static class Positioner extends SimplePanel {
+
+    /**
+     * The requested total size, including borders.
+     */
+    int height;
+
+    final SimplePanel inner = new SimplePanel();
+
+    boolean pooled;
+
+    final String styleName;
+
+    int width;
+
+    Positioner(String styleName) {
+      this.styleName = styleName;
+      addStyleName(styleName);
+      getElement().getStyle().setProperty("margin", "0px");
+      inner.getElement().getStyle().setProperty("margin", "0px");
+      inner.getElement().getStyle().setProperty("border", "none");
+      setWidget(inner);
+    }
+  }
+
+  /**
+   * Label for IE quirks mode workaround.
+   */
+  private static final Label DUMMY_LABEL_IE_QUIRKS_MODE_OFFSET_HEIGHT = new Label("x");
+
+  /**
+   * Maximum number of released positioners kept per CSS class.
+   */
+  private static final int MAX_POOL_SIZE = 32;
+
+  /**
+   * Horizontal and vertical borders, in that order, per CSS class.
+   */
+  private static final HashMap<String, int[]> borders = new HashMap<String, int[]>();
+
+  /**
+   * Released positioners per CSS class.
+   */
+  private static final HashMap<String, ArrayList<Positioner>> pools =
+      new HashMap<String, ArrayList<Positioner>>();
+
+  /**
+   * Forget the measured borders and the pooled positioners.
+   */
+  public static void clearCache() {
+    borders.clear();
+    pools.clear();
+  }
+
+  /**
+   * Get the total height of a positioner, as requested from this factory, without measuring it.
+   * Other positioners are measured.
+   */
+  static int getHeight(Widget positioner) {
+    if (positioner instanceof Positioner) {
+      return ((Positioner) positioner).height;
+    }
+    return positioner.getOffsetHeight();
+  }
+
+  /**
+   * Get the total width of a positioner, as requested from this factory, without measuring it.
+   * Other positioners are measured.
+   */
+  static int getWidth(Widget positioner) {
+    if (positioner instanceof Positioner) {
+      return ((Positioner) positioner).width;
+    }
+    return positioner.getOffsetWidth();
+  }
+
+  /**
+   * Get a positioner with the default positioner CSS class.
+   *
+   * @param width the total width of the positioner, including its borders
+   * @param height the total height of the positioner, including its borders
+   * @return a positioner, attached off screen until it is inserted into a drop target
+   */
+  public static Widget newPositioner(int width, int height) {
+    return newPositioner(DragClientBundle.INSTANCE.css().positioner(), width, height);
+  }
+
+  /**
+   * Get a positioner with the provided CSS class, reusing a released one when available.
+   *
+   * @param styleName the CSS class of the outer panel
+   * @param width the total width of the positioner, including its borders
+   * @param height the total height of the positioner, including its borders
+   * @return a positioner, attached off screen until it is inserted into a drop target
+   */
+  public static Widget newPositioner(String styleName, int width, int height) {
+    int[] styleBorders = getBorders(styleName);
+    Positioner positioner;
+    ArrayList<Positioner> pool = pools.get(styleName);
+    if (pool != null && !pool.isEmpty()) {
+      positioner = pool.remove(pool.size() - 1);
+      positioner.pooled = false;
+    } else {
+      positioner = new Positioner(styleName);
+    }
+    positioner.width = width;
+    positioner.height = height;
+    positioner.inner.setPixelSize(Math.max(0, width - styleBorders[0]), Math.max(0, height
+        - styleBorders[1]));
+
+    // place off screen so that the positioner can be measured before it is inserted
+    if (!positioner.isAttached()) {
+      RootPanel.get().add(positioner, -500, -500);
+    }
+    return positioner;
+  }
+
+  /**
+   * Remove a positioner from its parent and, if it was created by this factory, make it available
+   * for reuse. The positioner must not be used by the caller afterwards.
+   *
+   * @param positioner the positioner to release
+   */
+  public static void release(Widget positioner) {
+    positioner.removeFromParent();
+    if (!(positioner instanceof Positioner)) {
+      return;
+    }
+    Positioner pooledPositioner = (Positioner) positioner;
+    if (pooledPositioner.pooled) {
+      return;
+    }
+    ArrayList<Positioner> pool = pools.get(pooledPositioner.styleName);
+    if (pool == null) {
+      pool = new ArrayList<Positioner>();
+      pools.put(pooledPositioner.styleName, pool);
+    }
+    if (pool.size() < MAX_POOL_SIZE) {
+      pooledPositioner.pooled = true;
+      pool.add(pooledPositioner);
+    }
+  }
+
+  private static int[] getBorders(String styleName) {
+    int[] styleBorders = borders.get(styleName);
+    if (styleBorders == null) {
+      Positioner positioner = new Positioner(styleName);
+
+      // place off screen for border calculation
+      RootPanel.get().add(positioner, -500, -500);
+
+      // Ensure IE quirks mode returns valid outer.offsetHeight, and thus valid
+      // DOMUtil.getVerticalBorders(outer)
+      positioner.setWidget(DUMMY_LABEL_IE_QUIRKS_MODE_OFFSET_HEIGHT);
+
+      styleBorders = new int[] {
+          DOMUtil.getHorizontalBorders(positioner), DOMUtil.getVerticalBorders(positioner)};
+      borders.put(styleName, styleBorders);
+
+      positioner.setWidget(positioner.inner);
+      release(positioner);
+    }
+    return styleBorders;
+  }
+
+  private PositionerFactory() {
+  }
+}
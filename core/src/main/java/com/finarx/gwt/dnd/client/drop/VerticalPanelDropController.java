@@ -14,11 +14,8 @@
 package com.finarx.gwt.dnd.client.drop;
 
 import com.finarx.gwt.dnd.client.DragContext;
-import com.finarx.gwt.dnd.client.util.DOMUtil;
-import com.finarx.gwt.dnd.client.util.DragClientBundle;
-import com.google.gwt.user.client.ui.Label;
-import com.google.gwt.user.client.ui.RootPanel;
-import com.google.gwt.user.client.ui.SimplePanel;
+import com.finarx.gwt.dnd.client.util.CoordinateLocation;
+import com.finarx.gwt.dnd.client.util.Location;
 import com.google.gwt.user.client.ui.VerticalPanel;
 import com.google.gwt.user.client.ui.Widget;
 
@@ -31,11 +28,6 @@ import com.finarx.gwt.dnd.client.util.LocationWidgetComparator;
  */
 public class VerticalPanelDropController extends AbstractInsertPanelDropController {
 
-  /**
-   * Label for IE quirks mode workaround.
-   */
-  private static final Label DUMMY_LABEL_IE_QUIRKS_MODE_OFFSET_HEIGHT = new Label("x");
-
   /**
    * Construct an {@link VerticalPanelDropController}.
    * 
@@ -51,19 +43,13 @@ public class VerticalPanelDropController extends AbstractInsertPanelDropControll
   }
 
   @Override
-  protected Widget newPositioner(DragContext context) {
-    // Use two widgets so that setPixelSize() consistently affects dimensions
-    // excluding positioner border in quirks and strict modes
-    SimplePanel outer = new SimplePanel();
-    outer.addStyleName(DragClientBundle.INSTANCE.css().positioner());
-
-    // place off screen for border calculation
-    RootPanel.get().add(outer, -500, -500);
-
-    // Ensure IE quirks mode returns valid outer.offsetHeight, and thus valid
-    // DOMUtil.getVerticalBorders(outer)
-    outer.setWidget(DUMMY_LABEL_IE_QUIRKS_MODE_OFFSET_HEIGHT);
+  protected Location getPositionerDisplacement(int positionerWidth, int positionerHeight) {
+    // the positioner occupies a cell of its own
+    return new CoordinateLocation(0, positionerHeight + ((VerticalPanel) dropTarget).getSpacing());
+  }
 
+  @Override
+  protected Widget newPositioner(DragContext context) {
     int width = 0;
     int height = 0;
     for (Widget widget : context.selectedWidgets) {
@@ -71,12 +57,6 @@ public class VerticalPanelDropController extends AbstractInsertPanelDropControll
       height += widget.getOffsetHeight();
     }
 
-    SimplePanel inner = new SimplePanel();
-    inner.setPixelSize(width - DOMUtil.getHorizontalBorders(outer), height
-        - DOMUtil.getVerticalBorders(outer));
-
-    outer.setWidget(inner);
-
-    return outer;
+    return PositionerFactory.newPositioner(width, height);
   }
 }
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client.drop;
+
+import com.finarx.gwt.dnd.client.DragContext;
+import com.finarx.gwt.dnd.client.DropFeedbackOverlay;
+import com.finarx.gwt.dnd.client.VetoDragException;
+import com.finarx.gwt.dnd.client.util.CoordinateArea;
+import com.finarx.gwt.dnd.client.util.DOMUtil;
+import com.finarx.gwt.dnd.client.util.LayoutCache;
+import com.finarx.gwt.dnd.client.util.RowHeightIndex;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.user.client.ui.Widget;
+
+/**
+ * A {@link DropController} for virtualized lists, which render only the rows currently scrolled
+ * into view. Rather than measuring child widgets, the insertion index is computed from the row
+ * heights of the list's data model and the scroll position of the viewport, in
+ * <code>O(log n)</code> time, so lists of any length can be reordered by drag-and-drop.
+ *
+ * <p> The drop target is the viewport, the scrolling element whose content is the full height of
+ * all rows; rows start at the top of its content. The application keeps the
+ * {@link RowHeightIndex} in step with its data model, and moves the dropped items in the model in
+ * {@link #insert(DragContext, int)}. </p>
+ *
+ * <p> The insertion marker is drawn in the drop feedback overlay, so
+ * {@link com.finarx.gwt.dnd.client.PickupDragController#setBehaviorDropFeedbackOverlay(boolean)}
+ * should be enabled; without it, the drop index is still tracked but not shown. </p>
+ */
+public abstract class VirtualListDropController extends AbstractDropController {
+
+  /**
+   * Value of {@link #markerY} while no insertion marker is shown.
+   */
+  private static final int NO_MARKER = Integer.MIN_VALUE;
+
+  /**
+   * The insertion index of the current drop, valid after {@link #onPreviewDrop(DragContext)}.
+   */
+  private int dropIndex;
+
+  /**
+   * The current insertion index, or <code>-1</code> when the pointer is outside the viewport.
+   */
+  private int markerIndex = -1;
+
+  /**
+   * Document y coordinate of the insertion marker shown, or {@link #NO_MARKER}.
+   */
+  private int markerY = NO_MARKER;
+
+  /**
+   * The drop feedback overlay while engaged, or <code>null</code>.
+   */
+  private DropFeedbackOverlay overlay;
+
+  private final RowHeightIndex rowHeights;
+
+  /**
+   * Document coordinates of the viewport's client area, measured in
+   * {@link #onEnter(DragContext)} and whenever something has been scrolled since.
+   */
+  private int viewportBottom;
+
+  private int viewportLeft;
+
+  private int viewportRight;
+
+  /**
+   * The {@link LayoutCache#getScrollGeneration() scroll generation} of the viewport coordinates.
+   */
+  private int viewportScrollGeneration;
+
+  private int viewportTop;
+
+  /**
+   * Create a drop controller for a virtualized list.
+   *
+   * @param viewport the scrolling element of the list
+   * @param rowHeights the row heights of the list's data model
+   */
+  public VirtualListDropController(Widget viewport, RowHeightIndex rowHeights) {
+    super(viewport);
+    this.rowHeights = rowHeights;
+  }
+
+  /**
+   * Get the row heights of the list's data model.
+   *
+   * @return the row height index
+   */
+  public RowHeightIndex getRowHeights() {
+    return rowHeights;
+  }
+
+  @Override
+  public void onDrop(DragContext context) {
+    insert(context, dropIndex);
+    super.onDrop(context);
+  }
+
+  @Override
+  public void onEnter(DragContext context) {
+    super.onEnter(context);
+    overlay = context.getDropFeedbackOverlay();
+    measureViewport();
+    updateInsertionIndex(context);
+  }
+
+  @Override
+  public void onLeave(DragContext context) {
+    if (overlay != null) {
+      overlay.hideInsertionMarker();
+      overlay = null;
+    }
+    markerIndex = -1;
+    markerY = NO_MARKER;
+    super.onLeave(context);
+  }
+
+  @Override
+  public void onMove(DragContext context) {
+    super.onMove(context);
+    if (viewportScrollGeneration != LayoutCache.getScrollGeneration()) {
+      measureViewport();
+    }
+    updateInsertionIndex(context);
+  }
+
+  @Override
+  public void onPreviewDrop(DragContext context) throws VetoDragException {
+    dropIndex = markerIndex;
+    if (dropIndex == -1) {
+      throw new VetoDragException();
+    }
+    super.onPreviewDrop(context);
+  }
+
+  /**
+   * Determine the insertion index for a pointer location.
+   *
+   * @param x the pointer x coordinate in document coordinates
+   * @param y the pointer y coordinate in document coordinates
+   * @return the index of the row before which to insert, from <code>0</code> up to and including
+   *         the row count, or <code>-1</code> if the location is outside the viewport
+   */
+  protected int findInsertionIndex(int x, int y) {
+    if (x < viewportLeft || x > viewportRight || y < viewportTop || y > viewportBottom) {
+      return -1;
+    }
+    return rowHeights.getInsertionIndex(y - viewportTop,
+        getDropTarget().getElement().getScrollTop());
+  }
+
+  /**
+   * Called by {@link #onDrop(DragContext)} to move the dragged items in the data model. The index
+   * refers to the model as it was during the drag, that is before any of the dragged items were
+   * removed from it.
+   *
+   * @param context the current drag context
+   * @param index the index of the row before which the dragged items were dropped, from
+   *          <code>0</code> up to and including the row count
+   */
+  protected abstract void insert(DragContext context, int index);
+
+  private void measureViewport() {
+    Element elem = getDropTarget().getElement();
+    // document position of the border box; WidgetLocation would also subtract the scroll position
+    viewportLeft = elem.getAbsoluteLeft() + DOMUtil.getBorderLeft(elem);
+    viewportTop = elem.getAbsoluteTop() + DOMUtil.getBorderTop(elem);
+    viewportRight = viewportLeft + DOMUtil.getClientWidth(elem) - 1;
+    viewportBottom = viewportTop + DOMUtil.getClientHeight(elem) - 1;
+    viewportScrollGeneration = LayoutCache.getScrollGeneration();
+  }
+
+  /**
+   * Track the insertion index and move the insertion marker, clipped to the viewport, when the
+   * index changes or the viewport scrolls.
+   */
+  private void updateInsertionIndex(DragContext context) {
+    markerIndex = findInsertionIndex(context.mouseX, context.mouseY);
+    if (overlay == null) {
+      return;
+    }
+    if (markerIndex == -1) {
+      if (markerY != NO_MARKER) {
+        markerY = NO_MARKER;
+        overlay.hideInsertionMarker();
+      }
+      return;
+    }
+    int y = viewportTop
+        + rowHeights.getViewportOffset(markerIndex, getDropTarget().getElement().getScrollTop());
+    y = Math.max(viewportTop, Math.min(y, viewportBottom));
+    if (y != markerY) {
+      markerY = y;
+      overlay.showInsertionMarker(new CoordinateArea(viewportLeft, y, viewportRight, y));
+    }
+  }
+}
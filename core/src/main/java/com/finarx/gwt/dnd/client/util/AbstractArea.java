@@ -81,17 +81,16 @@ public abstract class AbstractArea implements Area {
 
   @Override
   public boolean inBottomRight(Location location) {
-    Location center = getCenter();
-    float distanceX = (float) (location.getLeft() - center.getLeft()) / getWidth();
-    float distanceY = (float) (location.getTop() - center.getTop()) / getHeight();
+    // same as getCenter(), without allocating a location
+    float distanceX = (float) (location.getLeft() - (left + getWidth() / 2)) / getWidth();
+    float distanceY = (float) (location.getTop() - (top + getHeight() / 2)) / getHeight();
     return distanceX + distanceY > 0;
   }
 
   @Override
   public boolean inBottomLeft(Location location) {
-    Location center = getCenter();
-    float distanceX = (float) (location.getLeft() - center.getLeft()) / getWidth();
-    float distanceY = (float) (location.getTop() - center.getTop()) / getHeight();
+    float distanceX = (float) (location.getLeft() - (left + getWidth() / 2)) / getWidth();
+    float distanceY = (float) (location.getTop() - (top + getHeight() / 2)) / getHeight();
     return distanceX - distanceY < 0;
   }
 
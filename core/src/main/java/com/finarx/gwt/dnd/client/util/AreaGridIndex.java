@@ -0,0 +1,298 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client.util;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid spatial index over an ordered array of {@link Area Areas}, answering which area with
+ * the highest array index contains a given point. Each grid cell lists, in ascending order, the
+ * indices of the areas overlapping that cell, so a point query only examines the areas sharing its
+ * cell. Areas spanning a large fraction of the grid are kept in a separate short list rather than
+ * being copied into every cell they cover.
+ *
+ * <p> Consecutive queries usually hit the same area, so the index remembers the last hit area and
+ * the few higher-indexed areas overlapping it, and answers from those alone while the location
+ * stays inside the last hit area. </p>
+ *
+ * <p> The index is a snapshot: it must be rebuilt when any of the areas change. </p>
+ */
+public final class AreaGridIndex {
+
+  /**
+   * Minimum number of cells an area may span before it is considered large.
+   */
+  private static final int MIN_LARGE_AREA_CELLS = 16;
+
+  /**
+   * Maximum number of overlapping areas for which the last hit area is remembered; beyond that a
+   * regular query is cheaper.
+   */
+  private static final int MAX_LAST_HIT_OVERLAPPERS = 16;
+
+  private final Area[] areas;
+
+  /**
+   * For each cell, the offset of its first entry in {@link #cellEntries}; the entries of cell
+   * <code>c</code> end at <code>cellStart[c + 1]</code>.
+   */
+  private final int[] cellStart;
+
+  /**
+   * Area indices of all cells, grouped by cell and ascending within each cell.
+   */
+  private final int[] cellEntries;
+
+  private final int cellHeight;
+
+  private final int cellWidth;
+
+  private final int columns;
+
+  /**
+   * Ascending indices of areas which span too many cells to be listed per cell.
+   */
+  private final int[] largeAreas;
+
+  /**
+   * Index of the area returned by the previous query, or <code>-1</code>.
+   */
+  private int lastHit = -1;
+
+  /**
+   * Ascending indices of the areas after {@link #lastHit} which overlap it, or <code>null</code>
+   * if there are too many to be worth remembering.
+   */
+  private int[] lastHitOverlappers;
+
+  private final int left;
+
+  private final int rows;
+
+  private final int top;
+
+  /**
+   * Build an index over the provided areas. Areas later in the array take precedence over earlier
+   * areas when both contain a point.
+   *
+   * @param areas the areas to index
+   */
+  public AreaGridIndex(Area[] areas) {
+    this.areas = areas;
+    int n = areas.length;
+    if (n == 0) {
+      left = top = 0;
+      columns = rows = 0;
+      cellWidth = cellHeight = 1;
+      cellStart = new int[] {0};
+      cellEntries = new int[0];
+      largeAreas = new int[0];
+      return;
+    }
+
+    int minLeft = Integer.MAX_VALUE;
+    int minTop = Integer.MAX_VALUE;
+    int maxRight = Integer.MIN_VALUE;
+    int maxBottom = Integer.MIN_VALUE;
+    for (Area area : areas) {
+      minLeft = Math.min(minLeft, area.getLeft());
+      minTop = Math.min(minTop, area.getTop());
+      maxRight = Math.max(maxRight, area.getRight());
+      maxBottom = Math.max(maxBottom, area.getBottom());
+    }
+    left = minLeft;
+    top = minTop;
+    int width = maxRight - minLeft + 1;
+    int height = maxBottom - minTop + 1;
+
+    // aim for roughly one cell per area
+    int cellSize = Math.max(1, (int) Math.ceil(Math.sqrt((double) width * height / n)));
+    cellWidth = Math.min(cellSize, width);
+    cellHeight = Math.min(cellSize, height);
+    columns = (width + cellWidth - 1) / cellWidth;
+    rows = (height + cellHeight - 1) / cellHeight;
+    int cellCount = columns * rows;
+    int largeAreaCells = Math.max(MIN_LARGE_AREA_CELLS, cellCount / 8);
+
+    // first pass: count entries per cell
+    int[] counts = new int[cellCount + 1];
+    int largeCount = 0;
+    for (Area area : areas) {
+      int col0 = column(area.getLeft());
+      int col1 = column(area.getRight());
+      int row0 = row(area.getTop());
+      int row1 = row(area.getBottom());
+      if ((col1 - col0 + 1) * (row1 - row0 + 1) > largeAreaCells) {
+        largeCount++;
+        continue;
+      }
+      for (int row = row0; row <= row1; row++) {
+        for (int col = col0; col <= col1; col++) {
+          counts[row * columns + col]++;
+        }
+      }
+    }
+
+    cellStart = new int[cellCount + 1];
+    for (int c = 0; c < cellCount; c++) {
+      cellStart[c + 1] = cellStart[c] + counts[c];
+    }
+
+    // second pass: fill cells in ascending area order, reusing counts as fill positions
+    cellEntries = new int[cellStart[cellCount]];
+    largeAreas = new int[largeCount];
+    System.arraycopy(cellStart, 0, counts, 0, cellCount);
+    largeCount = 0;
+    for (int i = 0; i < n; i++) {
+      Area area = areas[i];
+      int col0 = column(area.getLeft());
+      int col1 = column(area.getRight());
+      int row0 = row(area.getTop());
+      int row1 = row(area.getBottom());
+      if ((col1 - col0 + 1) * (row1 - row0 + 1) > largeAreaCells) {
+        largeAreas[largeCount++] = i;
+        continue;
+      }
+      for (int row = row0; row <= row1; row++) {
+        for (int col = col0; col <= col1; col++) {
+          cellEntries[counts[row * columns + col]++] = i;
+        }
+      }
+    }
+  }
+
+  /**
+   * Determine the highest index of an area containing the location <code>(x, y)</code>, using the
+   * same inclusive edges as {@link Area#intersects(Location)}.
+   *
+   * @param x the left coordinate
+   * @param y the top coordinate
+   * @return the highest index of an intersecting area or <code>-1</code> if there is none
+   */
+  public int findLast(int x, int y) {
+    if (lastHit != -1 && lastHitOverlappers != null && contains(areas[lastHit], x, y)) {
+      // only areas overlapping the last hit area can be hit instead of it
+      for (int k = lastHitOverlappers.length - 1; k >= 0; k--) {
+        int i = lastHitOverlappers[k];
+        if (contains(areas[i], x, y)) {
+          setLastHit(i);
+          return i;
+        }
+      }
+      return lastHit;
+    }
+    int found = search(x, y);
+    setLastHit(found);
+    return found;
+  }
+
+  private int column(int x) {
+    return (x - left) / cellWidth;
+  }
+
+  private boolean contains(Area area, int x, int y) {
+    return area.getLeft() <= x && x <= area.getRight() && area.getTop() <= y
+        && y <= area.getBottom();
+  }
+
+  /**
+   * Find the areas after index <code>i</code> which overlap area <code>i</code>.
+   *
+   * @return ascending indices, or <code>null</code> if there are more than
+   *         {@link #MAX_LAST_HIT_OVERLAPPERS}
+   */
+  private int[] findOverlappers(int i) {
+    Area area = areas[i];
+    int[] found = new int[MAX_LAST_HIT_OVERLAPPERS];
+    int count = 0;
+    for (int e = largeAreas.length - 1; e >= 0 && largeAreas[e] > i; e--) {
+      if (area.intersects(areas[largeAreas[e]])) {
+        if (count == MAX_LAST_HIT_OVERLAPPERS) {
+          return null;
+        }
+        found[count++] = largeAreas[e];
+      }
+    }
+    int col0 = column(area.getLeft());
+    int col1 = column(area.getRight());
+    int row0 = row(area.getTop());
+    int row1 = row(area.getBottom());
+    for (int row = row0; row <= row1; row++) {
+      for (int col = col0; col <= col1; col++) {
+        int cell = row * columns + col;
+        for (int e = cellStart[cell + 1] - 1; e >= cellStart[cell] && cellEntries[e] > i; e--) {
+          int j = cellEntries[e];
+          if (indexOf(found, count, j) == -1 && area.intersects(areas[j])) {
+            if (count == MAX_LAST_HIT_OVERLAPPERS) {
+              return null;
+            }
+            found[count++] = j;
+          }
+        }
+      }
+    }
+    int[] result = new int[count];
+    System.arraycopy(found, 0, result, 0, count);
+    Arrays.sort(result);
+    return result;
+  }
+
+  private int indexOf(int[] values, int count, int value) {
+    for (int k = 0; k < count; k++) {
+      if (values[k] == value) {
+        return k;
+      }
+    }
+    return -1;
+  }
+
+  private int row(int y) {
+    return (y - top) / cellHeight;
+  }
+
+  private int search(int x, int y) {
+    int found = -1;
+    if (x >= left && y >= top) {
+      int col = (x - left) / cellWidth;
+      int row = (y - top) / cellHeight;
+      if (col < columns && row < rows) {
+        int cell = row * columns + col;
+        for (int e = cellStart[cell + 1] - 1; e >= cellStart[cell]; e--) {
+          int i = cellEntries[e];
+          if (contains(areas[i], x, y)) {
+            found = i;
+            break;
+          }
+        }
+      }
+    }
+    for (int e = largeAreas.length - 1; e >= 0; e--) {
+      int i = largeAreas[e];
+      if (i <= found) {
+        break;
+      }
+      if (contains(areas[i], x, y)) {
+        return i;
+      }
+    }
+    return found;
+  }
+
+  private void setLastHit(int i) {
+    if (i != lastHit) {
+      lastHit = i;
+      lastHitOverlappers = i == -1 ? null : findOverlappers(i);
+    }
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client.util;
+
+import com.google.gwt.user.client.ui.IndexedPanel;
+import com.google.gwt.user.client.ui.Widget;
+
+/**
+ * Snapshot of the areas of a panel's children, excluding the positioner, which resolves the index
+ * at a location in memory with the same binary search as
+ * {@link DOMUtil#findIntersect(IndexedPanel, Location, LocationWidgetComparator)}.
+ *
+ * <p> The areas are recorded as they would be without the positioner. While the positioner is in
+ * the panel it displaces the children which follow it by a fixed amount, which is applied to the
+ * recorded areas when they are compared with the location. This suits panels which lay out their
+ * children in a single row or column; children which wrap to another line move unpredictably.
+ * </p>
+ *
+ * <p> The table is a snapshot: it must be rebuilt when children are added or removed, or when the
+ * panel is scrolled or moved. </p>
+ */
+public final class ChildAreaTable {
+
+  private final Area[] areas;
+
+  /**
+   * Reused for the areas of displaced children while searching.
+   */
+  private final MutableArea displacedArea = new MutableArea();
+
+  private final int displacementX;
+
+  private final int displacementY;
+
+  private final boolean rtl;
+
+  /**
+   * Measure the children of a panel.
+   *
+   * @param parent the panel whose children are to be measured
+   * @param positioner the positioner, which is left out, or <code>null</code>
+   * @param displacementX the horizontal displacement, in left-to-right terms, of the children
+   *          following the positioner
+   * @param displacementY the vertical displacement of the children following the positioner
+   */
+  public ChildAreaTable(IndexedPanel parent, Widget positioner, int displacementX,
+      int displacementY) {
+    int widgetCount = parent.getWidgetCount();
+    int positionerIndex = positioner == null ? -1 : parent.getWidgetIndex(positioner);
+    areas = new Area[positionerIndex == -1 ? widgetCount : widgetCount - 1];
+    boolean rtl = false;
+    if (areas.length > 0) {
+      // use the first widget as a proxy for parent's direction
+      rtl = DOMUtil.isRtl(parent.getWidget(positionerIndex == 0 ? 1 : 0));
+    }
+    this.rtl = rtl;
+    this.displacementX = rtl ? -displacementX : displacementX;
+    this.displacementY = displacementY;
+
+    int i = 0;
+    for (int index = 0; index < widgetCount; index++) {
+      if (index == positionerIndex) {
+        continue;
+      }
+      Area area = new WidgetArea(parent.getWidget(index), null);
+      if (positionerIndex != -1 && index > positionerIndex) {
+        // record the area as it would be without the positioner
+        area = new CoordinateArea(area.getLeft() - this.displacementX,
+            area.getTop() - this.displacementY, area.getRight() - this.displacementX,
+            area.getBottom() - this.displacementY);
+      }
+      areas[i++] = area;
+    }
+  }
+
+  /**
+   * Find the index, among the children other than the positioner, before which the positioner
+   * belongs.
+   *
+   * @param location the location of the intersection
+   * @param comparator the comparator strategy
+   * @param displacedFrom the index, among the children other than the positioner, of the first
+   *          child displaced by the positioner, or <code>-1</code> if the positioner is not in the
+   *          panel
+   * @return the index of the matching child
+   */
+  public int findIntersect(Location location, LocationWidgetComparator comparator,
+      int displacedFrom) {
+    int widgetCount = areas.length;
+
+    // short circuit in case dropTarget has no children
+    if (widgetCount == 0) {
+      return 0;
+    }
+
+    // binary search over range of widgets to find intersection
+    int low = 0;
+    int high = widgetCount;
+
+    while (true) {
+      int mid = (low + high) / 2;
+      assert mid >= low;
+      assert mid < high;
+      Area midArea = getArea(mid, displacedFrom);
+      if (mid == low) {
+        if (mid == 0 && comparator.locationIndicatesIndexFollowingWidget(midArea, location)) {
+          return high;
+        }
+        return mid == 0 ? mid : high;
+      }
+      if (midArea.getBottom() < location.getTop()) {
+        low = mid;
+      } else if (midArea.getTop() > location.getTop()) {
+        high = mid;
+      } else if (midArea.getRight() < location.getLeft()) {
+        if (rtl) {
+          high = mid;
+        } else {
+          low = mid;
+        }
+      } else if (midArea.getLeft() > location.getLeft()) {
+        if (rtl) {
+          low = mid;
+        } else {
+          high = mid;
+        }
+      } else if (comparator.locationIndicatesIndexFollowingWidget(midArea, location)) {
+        return mid + 1;
+      } else {
+        return mid;
+      }
+    }
+  }
+
+  /**
+   * Get the area of an insertion marker for the provided index, assuming the positioner is not in
+   * the panel: a line along the leading edge of the child at that index, or along the trailing
+   * edge of the last child for an index past the end.
+   *
+   * @param index the index among the children, as returned by
+   *          {@link #findIntersect(Location, LocationWidgetComparator, int)}
+   * @param horizontal <code>true</code> for a horizontal line between children placed one below
+   *          the other, <code>false</code> for a vertical line between children placed side by side
+   * @return the marker area, with a height or width of zero
+   */
+  public Area getInsertionArea(int index, boolean horizontal) {
+    assert areas.length > 0;
+    boolean after = index >= areas.length;
+    Area area = areas[after ? areas.length - 1 : index];
+    if (horizontal) {
+      int y = after ? area.getBottom() : area.getTop();
+      return new CoordinateArea(area.getLeft(), y, area.getRight(), y);
+    }
+    int x = after != rtl ? area.getRight() : area.getLeft();
+    return new CoordinateArea(x, area.getTop(), x, area.getBottom());
+  }
+
+  /**
+   * Get the number of children in the table, which excludes the positioner.
+   *
+   * @return the number of children
+   */
+  public int size() {
+    return areas.length;
+  }
+
+  private Area getArea(int index, int displacedFrom) {
+    Area area = areas[index];
+    if (displacedFrom == -1 || index < displacedFrom) {
+      return area;
+    }
+    return displacedArea.set(area.getLeft() + displacementX, area.getTop() + displacementY,
+        area.getRight() + displacementX, area.getBottom() + displacementY);
+  }
+}
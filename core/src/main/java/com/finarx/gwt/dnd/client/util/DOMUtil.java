@@ -13,6 +13,7 @@
  */
 package com.finarx.gwt.dnd.client.util;
 
+import com.finarx.gwt.dnd.client.util.impl.BoundingClientRect;
 import com.finarx.gwt.dnd.client.util.impl.DOMUtilImpl;
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.JsArray;
@@ -33,6 +34,17 @@ public class DOMUtil {
    */
   public static final boolean DEBUG = false;
 
+  /**
+   * Reused for the area of each child probed by
+   * {@link #findIntersect(IndexedPanel, Location, LocationWidgetComparator)}.
+   */
+  private static final MutableArea FIND_INTERSECT_AREA = new MutableArea();
+
+  /**
+   * Whether element geometry is measured with <code>getBoundingClientRect()</code>.
+   */
+  private static boolean boundingClientRectGeometry;
+
   private static DOMUtilImpl impl;
 
   static {
@@ -82,6 +94,18 @@ public class DOMUtil {
     elem.getStyle().setPropertyPx("top", top);
   }
 
+  /**
+   * Offset an element from its location with a <code>translate3d</code> transform, which moves it
+   * without affecting layout.
+   * 
+   * @param elem the element to be translated
+   * @param x the horizontal pixel offset
+   * @param y the vertical pixel offset
+   */
+  public static void fastSetElementTransform(Element elem, int x, int y) {
+    elem.getStyle().setProperty("transform", "translate3d(" + x + "px, " + y + "px, 0px)");
+  }
+
   /**
    * Find child widget intersection at the provided location using the provided comparator strategy.
    * 
@@ -119,7 +143,7 @@ public class DOMUtil {
       assert mid >= low;
       assert mid < high;
       Widget widget = parent.getWidget(mid);
-      WidgetArea midArea = new WidgetArea(widget, null);
+      Area midArea = FIND_INTERSECT_AREA.setWidget(widget, null);
       if (mid == low) {
         if (mid == 0) {
           if (comparator.locationIndicatesIndexFollowingWidget(midArea, location)) {
@@ -166,9 +190,32 @@ public class DOMUtil {
     }
   }
 
+  /**
+   * Determine whether {@link WidgetArea} and {@link WidgetLocation} measure elements with a single
+   * <code>getBoundingClientRect()</code> call, rather than with separate absolute position, offset
+   * size and computed border style queries, as enabled by
+   * {@link #setBoundingClientRectGeometry(boolean)}.
+   * 
+   * @return <code>true</code> if bounding client rectangle geometry is in use
+   */
+  public static boolean isBoundingClientRectGeometry() {
+    return boundingClientRectGeometry;
+  }
+
+  /**
+   * Determine whether the user agent reports usable <code>getBoundingClientRect()</code> results,
+   * regardless of whether {@link #isBoundingClientRectGeometry() bounding client rectangle
+   * geometry} is in use.
+   *
+   * @return <code>true</code> if {@link #getBoundingClientRect(Element)} may be used
+   */
+  public static boolean isBoundingClientRectSupported() {
+    return impl.isBoundingClientRectSupported();
+  }
+
   public static boolean isRtl(Widget widget) {
     Element elem = widget.getElement();
-    return "rtl".equals(getEffectiveStyle(elem, "direction"));
+    return "rtl".equals(LayoutCache.getEffectiveStyle(elem, "direction"));
   }
 
   /**
@@ -193,6 +240,16 @@ public class DOMUtil {
     return impl.getBorderTop(elem);
   }
 
+  /**
+   * Gets an element's bounding client rectangle, in fractional viewport coordinates.
+   * 
+   * @param elem the element to be measured
+   * @return the element's border box relative to the viewport
+   */
+  public static BoundingClientRect getBoundingClientRect(Element elem) {
+    return impl.getBoundingClientRect(elem);
+  }
+
   /**
    * Gets an element's client height in pixels or <code>0</code> (zero) when the element is hidden.
    * This is equal to offset height minus the top and bottom CSS borders.
@@ -262,6 +319,18 @@ public class DOMUtil {
     throw new RuntimeException(msg);
   }
 
+  /**
+   * Set whether {@link WidgetArea} and {@link WidgetLocation} measure elements with a single
+   * <code>getBoundingClientRect()</code> call. Bounding client rectangle geometry keeps fractional
+   * pixels until the final coordinates are rounded. It is disabled by default, in favor of the
+   * offset based measurements, and cannot be enabled where the user agent does not support it.
+   * 
+   * @param enabled <code>true</code> to use bounding client rectangle geometry
+   */
+  public static void setBoundingClientRectGeometry(boolean enabled) {
+    boundingClientRectGeometry = enabled && impl.isBoundingClientRectSupported();
+  }
+
   /**
    * Set the browser's status bar text, if supported and enabled in the client browser.
    * 
@@ -271,6 +340,20 @@ public class DOMUtil {
     Window.setStatus(text);
   }
 
+  /**
+   * Get the horizontal scroll offset of the document.
+   */
+  static double getScrollX() {
+    return impl.getScrollX();
+  }
+
+  /**
+   * Get the vertical scroll offset of the document.
+   */
+  static double getScrollY() {
+    return impl.getScrollY();
+  }
+
   /**
    * TODO Change IndexedPanel -> InsertPanel
    */
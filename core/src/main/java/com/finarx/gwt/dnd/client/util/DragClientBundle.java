@@ -44,6 +44,24 @@ public interface DragClientBundle extends ClientBundle {
     @ClassName("dragdrop-dropTarget-engage")
     public String dropTargetEngage();
 
+    /**
+     * CSS style name applied to the drop feedback overlay highlight of the engaged drop target.
+     */
+    @ClassName("dragdrop-feedback-engage")
+    public String feedbackEngage();
+
+    /**
+     * CSS style name applied to the drop feedback overlay layer.
+     */
+    @ClassName("dragdrop-feedback-layer")
+    public String feedbackLayer();
+
+    /**
+     * CSS style name applied to the drop feedback overlay insertion marker.
+     */
+    @ClassName("dragdrop-feedback-marker")
+    public String feedbackMarker();
+
     @ClassName("dragdrop-flow-panel-positioner")
     public String flowPanelPositioner();
 
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client.util;
+
+import com.finarx.gwt.dnd.client.util.impl.BoundingClientRect;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.dom.client.Element;
+
+import java.util.HashMap;
+
+/**
+ * Drag session scoped cache of computed styles, border widths, document scroll offsets and ancestor
+ * clip rectangles, keyed by element.
+ * Building a {@link WidgetArea} walks the offset parent chain of the widget and queries the
+ * computed <code>overflow</code> of each ancestor; during a drag operation the same ancestors are
+ * queried for every area built on every pointer move, so while a session is active the results are
+ * remembered until the page is scrolled, the browser window is resized or the cache is
+ * {@link #invalidate() invalidated}.
+ *
+ * <p> Outside a session nothing is cached. Drag controllers start a session when a drag operation
+ * starts, invalidate it whenever their drop target cache is reset and stop it when the drag
+ * operation ends. </p>
+ */
+public final class LayoutCache {
+
+  /**
+   * Clip rectangle of an offset parent, linked to the clip rectangle of its own offset parent.
+   */
+  static class Clip {
+
+    final int bottom;
+
+    /**
+     * Whether the element clips its descendants, that is its overflow is not visible.
+     */
+    final boolean clips;
+
+    final int left;
+
+    /**
+     * Clip of the element's offset parent, or <code>null</code> if the offset parent is the last
+     * in the chain.
+     */
+    final Clip next;
+
+    final int right;
+
+    final int top;
+
+    Clip(Element elem, Clip next) {
+      this.next = next;
+      clips = !"visible".equals(getEffectiveStyle(elem, "overflow"));
+      if (clips && DOMUtil.isBoundingClientRectGeometry()) {
+        BoundingClientRect rect = DOMUtil.getBoundingClientRect(elem);
+        double scrollX = getScrollX();
+        double scrollY = getScrollY();
+        left = (int) Math.round(rect.getLeft() + scrollX);
+        top = (int) Math.round(rect.getTop() + scrollY);
+        right = (int) Math.round(rect.getRight() + scrollX);
+        bottom = (int) Math.round(rect.getBottom() + scrollY);
+      } else if (clips) {
+        left = elem.getAbsoluteLeft();
+        top = elem.getAbsoluteTop();
+        right = left + elem.getOffsetWidth();
+        bottom = top + elem.getOffsetHeight();
+      } else {
+        left = top = right = bottom = 0;
+      }
+    }
+  }
+
+  private static class Entry {
+
+    /**
+     * Whether {@link #clientLeft} and {@link #clientTop} are valid.
+     */
+    boolean clientCached;
+
+    int clientLeft;
+
+    int clientTop;
+
+    /**
+     * The clip chain starting at the element, valid once {@link #clipCached} is set.
+     */
+    Clip clip;
+
+    boolean clipCached;
+
+    HashMap<String, String> styles;
+  }
+
+  private static boolean active;
+
+  private static final HashMap<Element, Entry> entries = new HashMap<Element, Entry>();
+
+  /**
+   * Native scroll and resize listener, or <code>null</code> outside a session.
+   */
+  private static JavaScriptObject listener;
+
+  /**
+   * Whether {@link #scrollX} and {@link #scrollY} are valid.
+   */
+  private static boolean scrollCached;
+
+  /**
+   * Incremented whenever a scroll or resize event is seen during a session.
+   */
+  private static int scrollGeneration;
+
+  private static double scrollX;
+
+  private static double scrollY;
+
+  /**
+   * Forget all cached values of the current session.
+   */
+  public static void invalidate() {
+    entries.clear();
+    scrollCached = false;
+  }
+
+  /**
+   * Forget all cached values and advance the {@link #getScrollGeneration() scroll generation}, as
+   * a scroll event would, after scrolling the page or an element programmatically during a
+   * session. The browser dispatches the scroll event only later, but measurements taken in the
+   * meantime must not use the cached values.
+   */
+  public static void invalidateScroll() {
+    onScrollOrResize();
+  }
+
+  /**
+   * Get a number which changes whenever the page, or any element in it, is scrolled or the browser
+   * window is resized during a session. Unlike {@link #invalidate()}, resetting a drag controller's
+   * drop target cache does not change it, which allows callers to keep their own, more expensive
+   * measurements until the layout is likely to have moved.
+   *
+   * @return the current scroll generation
+   */
+  public static int getScrollGeneration() {
+    return scrollGeneration;
+  }
+
+  /**
+   * Determine whether a session is active.
+   *
+   * @return <code>true</code> if values are being cached
+   */
+  public static boolean isActive() {
+    return active;
+  }
+
+  /**
+   * Start a session, typically when a drag operation starts.
+   */
+  public static void start() {
+    invalidate();
+    if (!active) {
+      active = true;
+      listener = addListener();
+    }
+  }
+
+  /**
+   * Stop the current session, if any, and forget all cached values.
+   */
+  public static void stop() {
+    invalidate();
+    if (active) {
+      active = false;
+      removeListener(listener);
+      listener = null;
+    }
+  }
+
+  /**
+   * Get the clip chain of an element and its offset parents, up to but excluding the last offset
+   * parent in the chain.
+   *
+   * @param elem the first element of the chain, or <code>null</code>
+   * @return the clip of the element, or <code>null</code> if the element is <code>null</code> or
+   *         has no offset parent
+   */
+  static Clip getClip(Element elem) {
+    if (elem == null) {
+      return null;
+    }
+    Entry entry = active ? getEntry(elem) : null;
+    if (entry != null && entry.clipCached) {
+      return entry.clip;
+    }
+    Element offsetParent = elem.getOffsetParent();
+    Clip clip = offsetParent == null ? null : new Clip(elem, getClip(offsetParent));
+    if (entry != null) {
+      entry.clip = clip;
+      entry.clipCached = true;
+    }
+    return clip;
+  }
+
+  /**
+   * Get the width of an element's left border, as reported by <code>clientLeft</code>.
+   */
+  static int getClientLeft(Element elem) {
+    if (!active) {
+      return elem.getPropertyInt("clientLeft");
+    }
+    return getClientEntry(elem).clientLeft;
+  }
+
+  /**
+   * Get the width of an element's top border, as reported by <code>clientTop</code>.
+   */
+  static int getClientTop(Element elem) {
+    if (!active) {
+      return elem.getPropertyInt("clientTop");
+    }
+    return getClientEntry(elem).clientTop;
+  }
+
+  /**
+   * Get the computed style of an element, from the cache while a session is active.
+   *
+   * @see DOMUtil#getEffectiveStyle(Element, String)
+   */
+  static String getEffectiveStyle(Element elem, String styleName) {
+    if (!active) {
+      return DOMUtil.getEffectiveStyle(elem, styleName);
+    }
+    Entry entry = getEntry(elem);
+    if (entry.styles == null) {
+      entry.styles = new HashMap<String, String>();
+    }
+    String value = entry.styles.get(styleName);
+    if (value == null && !entry.styles.containsKey(styleName)) {
+      value = DOMUtil.getEffectiveStyle(elem, styleName);
+      entry.styles.put(styleName, value);
+    }
+    return value;
+  }
+
+  /**
+   * Get the horizontal scroll offset of the document.
+   */
+  static double getScrollX() {
+    cacheScroll();
+    return scrollX;
+  }
+
+  /**
+   * Get the vertical scroll offset of the document.
+   */
+  static double getScrollY() {
+    cacheScroll();
+    return scrollY;
+  }
+
+  private static native JavaScriptObject addListener()
+  /*-{
+    var listener = $entry(function(evt) {
+      @com.finarx.gwt.dnd.client.util.LayoutCache::onScrollOrResize()();
+    });
+    // capture phase, as scroll events on elements do not bubble
+    $doc.addEventListener("scroll", listener, true);
+    $wnd.addEventListener("resize", listener, false);
+    return listener;
+  }-*/;
+
+  private static void cacheScroll() {
+    if (!active || !scrollCached) {
+      scrollX = DOMUtil.getScrollX();
+      scrollY = DOMUtil.getScrollY();
+      scrollCached = active;
+    }
+  }
+
+  private static Entry getClientEntry(Element elem) {
+    Entry entry = getEntry(elem);
+    if (!entry.clientCached) {
+      entry.clientLeft = elem.getPropertyInt("clientLeft");
+      entry.clientTop = elem.getPropertyInt("clientTop");
+      entry.clientCached = true;
+    }
+    return entry;
+  }
+
+  private static Entry getEntry(Element elem) {
+    Entry entry = entries.get(elem);
+    if (entry == null) {
+      entry = new Entry();
+      entries.put(elem, entry);
+    }
+    return entry;
+  }
+
+  private static void onScrollOrResize() {
+    scrollGeneration++;
+    invalidate();
+  }
+
+  private static native void removeListener(JavaScriptObject listener)
+  /*-{
+    $doc.removeEventListener("scroll", listener, true);
+    $wnd.removeEventListener("resize", listener, false);
+  }-*/;
+
+  private LayoutCache() {
+  }
+}
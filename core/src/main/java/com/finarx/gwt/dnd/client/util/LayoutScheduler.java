@@ -0,0 +1,134 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client.util;
+
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
+
+import java.util.ArrayList;
+
+/**
+ * Measure/mutate scheduler which separates layout reads from DOM writes. Interleaving them forces
+ * the browser to recalculate layout synchronously at every read which follows a write; while a
+ * frame is open, writes are therefore queued and performed together when the frame ends, after
+ * all reads.
+ *
+ * <p> A drag controller opens a frame around each
+ * {@link com.finarx.gwt.dnd.client.DragController#dragMove()}, so drop controllers measure directly
+ * in their <code>onEnter()</code> and <code>onMove()</code> methods and hand their DOM changes to
+ * {@link #mutate(ScheduledCommand)}. Reads which must see the result of queued writes go to
+ * {@link #measure(ScheduledCommand)}; they run after the writes, and any writes they queue run
+ * after them in turn. </p>
+ *
+ * <p> Outside a frame, commands run immediately. </p>
+ */
+public final class LayoutScheduler {
+
+  /**
+   * Number of currently open (nested) frames.
+   */
+  private static int depth;
+
+  private static ArrayList<ScheduledCommand> reads = new ArrayList<ScheduledCommand>();
+
+  /**
+   * The commands of the round being run, kept to avoid allocating a list for every round.
+   */
+  private static ArrayList<ScheduledCommand> running = new ArrayList<ScheduledCommand>();
+
+  private static ArrayList<ScheduledCommand> writes = new ArrayList<ScheduledCommand>();
+
+  /**
+   * Open a frame. Frames may be nested; queued commands run when the outermost frame ends.
+   */
+  public static void beginFrame() {
+    depth++;
+  }
+
+  /**
+   * Close a frame. Closing the outermost frame runs all queued writes, followed by any reads queued
+   * with {@link #measure(ScheduledCommand)}, repeating until both queues are empty.
+   */
+  public static void endFrame() {
+    assert depth > 0 : "endFrame() without beginFrame()";
+    if (depth > 1) {
+      depth--;
+      return;
+    }
+    try {
+      while (!writes.isEmpty() || !reads.isEmpty()) {
+        run(writes);
+        run(reads);
+      }
+    } finally {
+      writes.clear();
+      reads.clear();
+      depth = 0;
+    }
+  }
+
+  /**
+   * Determine whether a frame is open, that is whether writes are being deferred.
+   *
+   * @return <code>true</code> if a frame is open
+   */
+  public static boolean isFrameOpen() {
+    return depth > 0;
+  }
+
+  /**
+   * Schedule a layout read which depends on the DOM writes of the current frame. Runs after the
+   * frame's queued writes, or immediately when no frame is open.
+   *
+   * @param command the command which reads layout
+   */
+  public static void measure(ScheduledCommand command) {
+    if (depth == 0) {
+      command.execute();
+    } else {
+      reads.add(command);
+    }
+  }
+
+  /**
+   * Schedule a DOM write. Runs when the current frame ends, after all synchronous reads of the
+   * frame, or immediately when no frame is open. Writes run in the order they were scheduled.
+   *
+   * @param command the command which modifies the DOM
+   */
+  public static void mutate(ScheduledCommand command) {
+    if (depth == 0) {
+      command.execute();
+    } else {
+      writes.add(command);
+    }
+  }
+
+  private static void run(ArrayList<ScheduledCommand> queue) {
+    // commands may queue more commands; those run in the next round
+    for (int i = 0, size = queue.size(); i < size; i++) {
+      running.add(queue.get(i));
+    }
+    queue.clear();
+    try {
+      for (int i = 0, size = running.size(); i < size; i++) {
+        running.get(i).execute();
+      }
+    } finally {
+      running.clear();
+    }
+  }
+
+  private LayoutScheduler() {
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2009 Fred Sauer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client.util;
+
+import com.google.gwt.user.client.ui.Widget;
+
+/**
+ * An {@link Area} whose edges may be changed, so that a single instance can be reused on every
+ * pointer move instead of allocating a new {@link CoordinateArea} or {@link WidgetArea}. Holders
+ * must not pass it to code which keeps a reference to it.
+ */
+public final class MutableArea extends AbstractArea {
+  //CHECKSTYLE_JAVADOC_OFF
+
+  public MutableArea() {
+  }
+
+  public MutableArea(int left, int top, int right, int bottom) {
+    set(left, top, right, bottom);
+  }
+
+  /**
+   * Change the edges of this area.
+   *
+   * @param left the left coordinate in pixels
+   * @param top the top coordinate in pixels
+   * @param right the right coordinate in pixels
+   * @param bottom the bottom coordinate in pixels
+   * @return this area
+   */
+  public MutableArea set(int left, int top, int right, int bottom) {
+    setLeft(left);
+    setTop(top);
+    setRight(right);
+    setBottom(bottom);
+    return this;
+  }
+
+  /**
+   * Change this area to that of a widget, measured as by
+   * {@link WidgetArea#WidgetArea(Widget, Widget)}.
+   *
+   * @param widget the widget whose area is to be measured
+   * @param reference the widget relative to which the area is measured, or <code>null</code>
+   * @return this area
+   */
+  public MutableArea setWidget(Widget widget, Widget reference) {
+    WidgetArea.measure(this, widget, reference);
+    return this;
+  }
+}
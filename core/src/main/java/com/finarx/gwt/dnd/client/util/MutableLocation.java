@@ -0,0 +1,58 @@
+/*
+ * Copyright 2009 Fred Sauer
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client.util;
+
+/**
+ * A {@link Location} whose coordinates may be changed, so that a single instance can be reused on
+ * every pointer move instead of allocating a new {@link CoordinateLocation}. Holders must not pass
+ * it to code which keeps a reference to it.
+ */
+public final class MutableLocation extends AbstractLocation {
+  //CHECKSTYLE_JAVADOC_OFF
+
+  private int left;
+
+  private int top;
+
+  public MutableLocation() {
+  }
+
+  public MutableLocation(int left, int top) {
+    this.left = left;
+    this.top = top;
+  }
+
+  @Override
+  public int getLeft() {
+    return left;
+  }
+
+  @Override
+  public int getTop() {
+    return top;
+  }
+
+  /**
+   * Change the coordinates of this location.
+   *
+   * @param left the left coordinate in pixels
+   * @param top the top coordinate in pixels
+   * @return this location
+   */
+  public MutableLocation set(int left, int top) {
+    this.left = left;
+    this.top = top;
+    return this;
+  }
+}
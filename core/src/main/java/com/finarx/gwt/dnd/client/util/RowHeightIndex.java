@@ -0,0 +1,229 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client.util;
+
+/**
+ * Heights of the rows of a virtualized list, kept in a Fenwick tree (binary indexed tree) of prefix
+ * sums so that both the vertical offset of a row and the row at a vertical offset are found in
+ * <code>O(log n)</code> time, and a single row height is changed in <code>O(log n)</code> time.
+ * Inserting or removing rows rebuilds the tree in <code>O(n)</code> time.
+ *
+ * <p> Offsets are measured from the top of the first row; row <code>i</code> spans offsets
+ * <code>getOffset(i)</code> up to, but excluding, <code>getOffset(i + 1)</code>. </p>
+ *
+ * @see com.finarx.gwt.dnd.client.drop.VirtualListDropController
+ */
+public final class RowHeightIndex {
+
+  private int[] heights;
+
+  private int rowCount;
+
+  /**
+   * One based Fenwick tree: <code>tree[i]</code> holds the sum of the heights of the
+   * <code>i & -i</code> rows ending with row <code>i - 1</code>.
+   */
+  private int[] tree;
+
+  /**
+   * Create an index of rows which all have the same height.
+   *
+   * @param rowCount the number of rows
+   * @param rowHeight the height of each row in pixels
+   */
+  public RowHeightIndex(int rowCount, int rowHeight) {
+    assert rowCount >= 0 && rowHeight >= 0;
+    heights = new int[Math.max(rowCount, 16)];
+    for (int i = 0; i < rowCount; i++) {
+      heights[i] = rowHeight;
+    }
+    this.rowCount = rowCount;
+    rebuild();
+  }
+
+  /**
+   * Create an index of rows with the provided heights.
+   *
+   * @param rowHeights the height of each row in pixels
+   */
+  public RowHeightIndex(int[] rowHeights) {
+    heights = new int[Math.max(rowHeights.length, 16)];
+    System.arraycopy(rowHeights, 0, heights, 0, rowHeights.length);
+    rowCount = rowHeights.length;
+    rebuild();
+  }
+
+  /**
+   * Get the vertical offset of the top of a row, which is the sum of the heights of all rows before
+   * it.
+   *
+   * @param row the row index, from <code>0</code> up to and including the row count
+   * @return the offset in pixels
+   */
+  public int getOffset(int row) {
+    assert row >= 0 && row <= rowCount;
+    int sum = 0;
+    for (int i = row; i > 0; i -= i & -i) {
+      sum += tree[i];
+    }
+    return sum;
+  }
+
+  /**
+   * Find the index before which to insert for a pointer in a scrolled viewport: the row under the
+   * pointer, or the row after it when the pointer is in its bottom half.
+   *
+   * @param viewportOffset the distance of the pointer from the top of the viewport's client area
+   * @param scrollTop the vertical scroll position of the viewport
+   * @return the insertion index, from <code>0</code> up to and including the row count
+   */
+  public int getInsertionIndex(int viewportOffset, int scrollTop) {
+    int offset = viewportOffset + scrollTop;
+    int row = getRowAt(offset);
+    if (row < 0) {
+      return 0;
+    }
+    if (row >= rowCount) {
+      return rowCount;
+    }
+    return (offset - getOffset(row)) * 2 >= heights[row] ? row + 1 : row;
+  }
+
+  /**
+   * Find the row spanning a vertical offset.
+   *
+   * @param offset the offset in pixels
+   * @return the row index, <code>-1</code> if the offset is negative, or the row count if the
+   *         offset is at or below the bottom of the last row
+   */
+  public int getRowAt(int offset) {
+    if (offset < 0) {
+      return -1;
+    }
+    // descend the tree, skipping every subtree whose rows end at or above the offset
+    int row = 0;
+    int remaining = offset;
+    for (int step = Integer.highestOneBit(Math.max(rowCount, 1)); step > 0; step >>= 1) {
+      int next = row + step;
+      if (next <= rowCount && tree[next] <= remaining) {
+        row = next;
+        remaining -= tree[next];
+      }
+    }
+    return row;
+  }
+
+  /**
+   * Get the distance of the top of a row from the top of a scrolled viewport's client area.
+   *
+   * @param row the row index, from <code>0</code> up to and including the row count
+   * @param scrollTop the vertical scroll position of the viewport
+   * @return the offset in pixels, negative if the row starts above the viewport
+   */
+  public int getViewportOffset(int row, int scrollTop) {
+    return getOffset(row) - scrollTop;
+  }
+
+  /**
+   * Get the number of rows.
+   *
+   * @return the row count
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Get the height of a row.
+   *
+   * @param row the row index
+   * @return the height in pixels
+   */
+  public int getRowHeight(int row) {
+    assert row >= 0 && row < rowCount;
+    return heights[row];
+  }
+
+  /**
+   * Get the sum of the heights of all rows.
+   *
+   * @return the total height in pixels
+   */
+  public int getTotalHeight() {
+    return getOffset(rowCount);
+  }
+
+  /**
+   * Insert a row, moving the following rows down.
+   *
+   * @param row the index of the new row, from <code>0</code> up to and including the row count
+   * @param rowHeight the height of the new row in pixels
+   */
+  public void insertRow(int row, int rowHeight) {
+    assert row >= 0 && row <= rowCount && rowHeight >= 0;
+    if (rowCount == heights.length) {
+      int[] newHeights = new int[heights.length * 2];
+      System.arraycopy(heights, 0, newHeights, 0, rowCount);
+      heights = newHeights;
+    }
+    System.arraycopy(heights, row, heights, row + 1, rowCount - row);
+    heights[row] = rowHeight;
+    rowCount++;
+    rebuild();
+  }
+
+  /**
+   * Remove a row, moving the following rows up.
+   *
+   * @param row the index of the row to remove
+   */
+  public void removeRow(int row) {
+    assert row >= 0 && row < rowCount;
+    System.arraycopy(heights, row + 1, heights, row, rowCount - row - 1);
+    rowCount--;
+    rebuild();
+  }
+
+  /**
+   * Change the height of a row, for example once it has been rendered and measured.
+   *
+   * @param row the row index
+   * @param rowHeight the new height in pixels
+   */
+  public void setRowHeight(int row, int rowHeight) {
+    assert row >= 0 && row < rowCount && rowHeight >= 0;
+    int delta = rowHeight - heights[row];
+    if (delta == 0) {
+      return;
+    }
+    heights[row] = rowHeight;
+    for (int i = row + 1; i <= rowCount; i += i & -i) {
+      tree[i] += delta;
+    }
+  }
+
+  /**
+   * Build the tree from {@link #heights} in linear time, adding each node to its parent.
+   */
+  private void rebuild() {
+    tree = new int[rowCount + 1];
+    for (int i = 1; i <= rowCount; i++) {
+      tree[i] += heights[i - 1];
+      int parent = i + (i & -i);
+      if (parent <= rowCount) {
+        tree[parent] += tree[i];
+      }
+    }
+  }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client.util;
+
+import com.google.gwt.user.client.ui.IndexedPanel;
+import com.google.gwt.user.client.ui.Widget;
+
+/**
+ * Layout of a panel whose children all have the same size and are placed at a fixed pitch, in a
+ * single column, a single row, or rows which wrap after a fixed number of columns. The index at a
+ * location is computed arithmetically from the pointer offset, so resolving it reads no DOM
+ * geometry at all.
+ *
+ * <p> The layout is measured once, from the panel and its first children, ideally while the
+ * positioner is not in the panel, as when the drag enters the drop target. Only the position of
+ * the panel itself needs to be measured again, with {@link #locate()}, when the panel may have
+ * moved, for example after scrolling; children may be added and removed freely. </p>
+ */
+public final class UniformChildGrid {
+
+  /**
+   * Number of children per row, <code>1</code> for a single column, or
+   * {@link Integer#MAX_VALUE} for a single row.
+   */
+  private final int columns;
+
+  private final int itemHeight;
+
+  private final int itemWidth;
+
+  /**
+   * Offset of the leading corner of the first child from the leading corner of the panel's client
+   * area, in left-to-right terms.
+   */
+  private final int originX;
+
+  private final int originY;
+
+  private final Widget parent;
+
+  /**
+   * Document coordinates of the leading corner of the panel's client area: the left edge, or the
+   * right edge for right-to-left panels, and the top edge.
+   */
+  private int parentLeading;
+
+  private int parentTop;
+
+  /**
+   * Distance between the leading edges of adjacent children.
+   */
+  private final int pitchX;
+
+  private final int pitchY;
+
+  private final boolean rtl;
+
+  /**
+   * Measure the layout of a panel's children.
+   *
+   * @param parent the panel whose children are to be measured
+   * @param positioner the positioner, which is left out, or <code>null</code>
+   * @param width the declared distance between the leading edges of children side by side, or
+   *          <code>0</code> to measure it
+   * @param height the declared distance between the top edges of children one below the other, or
+   *          <code>0</code> to measure it
+   * @param comparator the comparator strategy of the panel, which determines whether its children
+   *          are placed in a column, a row, or wrapping rows
+   */
+  public UniformChildGrid(IndexedPanel parent, Widget positioner, int width, int height,
+      LocationWidgetComparator comparator) {
+    this.parent = (Widget) parent;
+    boolean column = comparator == LocationWidgetComparator.BOTTOM_HALF_COMPARATOR;
+    boolean row = comparator == LocationWidgetComparator.RIGHT_HALF_COMPARATOR
+        || comparator == LocationWidgetComparator.LEFT_HALF_COMPARATOR;
+    int first = nextChild(parent, positioner, 0);
+    rtl = first != -1 && DOMUtil.isRtl(parent.getWidget(first));
+    locate();
+
+    if (first == -1) {
+      // nothing to measure; every location resolves to index 0
+      columns = 1;
+      itemWidth = itemHeight = pitchX = pitchY = 1;
+      originX = originY = 0;
+      return;
+    }
+    Widget firstChild = parent.getWidget(first);
+    itemWidth = firstChild.getOffsetWidth();
+    itemHeight = firstChild.getOffsetHeight();
+    int firstLeading = getLeading(firstChild);
+    int firstTop = firstChild.getAbsoluteTop();
+    originX = rtl ? parentLeading - firstLeading : firstLeading - parentLeading;
+    originY = firstTop - parentTop;
+
+    // measure the pitch from the children following the first one, unless declared
+    int measuredPitchX = width > 0 ? width : itemWidth;
+    int measuredPitchY = height > 0 ? height : itemHeight;
+    int measuredColumns = 0;
+    int second = nextChild(parent, positioner, first + 1);
+    if (second != -1 && (width <= 0 || height <= 0 || !(column || row))) {
+      Widget secondChild = parent.getWidget(second);
+      int secondTop = secondChild.getAbsoluteTop();
+      if (column) {
+        measuredPitchY = height > 0 ? height : secondTop - firstTop;
+      } else if (secondTop == firstTop) {
+        if (width <= 0) {
+          measuredPitchX = Math.abs(getLeading(secondChild) - firstLeading);
+        }
+        if (!row) {
+          // find the first child of the second row
+          int count = 1;
+          for (int i = second; i != -1; i = nextChild(parent, positioner, i + 1), count++) {
+            int top = parent.getWidget(i).getAbsoluteTop();
+            if (top != firstTop) {
+              measuredColumns = count;
+              if (height <= 0) {
+                measuredPitchY = top - firstTop;
+              }
+              break;
+            }
+          }
+        }
+      } else if (!row) {
+        // one child per row
+        measuredColumns = 1;
+        if (height <= 0) {
+          measuredPitchY = secondTop - firstTop;
+        }
+      }
+    }
+    pitchX = Math.max(1, measuredPitchX);
+    pitchY = Math.max(1, measuredPitchY);
+    if (column) {
+      columns = 1;
+    } else if (row) {
+      columns = Integer.MAX_VALUE;
+    } else if (measuredColumns > 0) {
+      columns = measuredColumns;
+    } else {
+      // no second row yet; as many children as fit the panel's width
+      int clientWidth = DOMUtil.getClientWidth(this.parent.getElement());
+      columns = Math.max(1, (clientWidth - originX - itemWidth) / pitchX + 1);
+    }
+  }
+
+  /**
+   * Find the index, among the children other than the positioner, before which the positioner
+   * belongs. Locations in the leading half of a child resolve to that child, locations in its
+   * trailing half to the next one; in wrapping rows, the row is chosen first.
+   *
+   * @param location the location of the intersection
+   * @param size the number of children other than the positioner
+   * @return the index of the matching child, from <code>0</code> up to and including
+   *         <code>size</code>
+   */
+  public int findIntersect(Location location, int size) {
+    int x = rtl ? parentLeading - location.getLeft() : location.getLeft() - parentLeading;
+    int y = location.getTop() - parentTop;
+    // the number of children whose midpoint lies before the location
+    int index;
+    if (columns == 1) {
+      index = floorDiv(y - originY - itemHeight / 2 - 1, pitchY) + 1;
+    } else if (columns == Integer.MAX_VALUE) {
+      index = floorDiv(x - originX - itemWidth / 2 - 1, pitchX) + 1;
+    } else {
+      int row = Math.max(0, floorDiv(y - originY, pitchY));
+      int column = floorDiv(x - originX - itemWidth / 2 - 1, pitchX) + 1;
+      index = row * columns + Math.max(0, Math.min(columns, column));
+    }
+    return Math.max(0, Math.min(size, index));
+  }
+
+  /**
+   * Get the area of an insertion marker for the provided index, assuming the positioner is not in
+   * the panel: a line along the leading edge of the child at that index, or along the trailing
+   * edge of the last child for an index past the end.
+   *
+   * @param index the index among the children, as returned by
+   *          {@link #findIntersect(Location, int)}
+   * @param size the number of children other than the positioner
+   * @param horizontal <code>true</code> for a horizontal line between children placed one below
+   *          the other, <code>false</code> for a vertical line between children placed side by side
+   * @return the marker area, with a height or width of zero
+   */
+  public Area getInsertionArea(int index, int size, boolean horizontal) {
+    boolean after = index >= size && size > 0;
+    int slot = after ? size - 1 : index;
+    int column = columns == Integer.MAX_VALUE ? slot : slot % columns;
+    int row = columns == Integer.MAX_VALUE ? 0 : slot / columns;
+    int leading = originX + column * pitchX;
+    int left = rtl ? parentLeading - leading - itemWidth : parentLeading + leading;
+    int top = parentTop + originY + row * pitchY;
+    if (horizontal) {
+      int y = after ? top + itemHeight : top;
+      return new CoordinateArea(left, y, left + itemWidth, y);
+    }
+    int x = after != rtl ? left + itemWidth : left;
+    return new CoordinateArea(x, top, x, top + itemHeight);
+  }
+
+  /**
+   * Measure the position of the panel again, after it may have moved.
+   */
+  public void locate() {
+    Location location = new WidgetLocation(parent, null);
+    int left = location.getLeft() + DOMUtil.getBorderLeft(parent.getElement());
+    parentLeading = rtl ? left + DOMUtil.getClientWidth(parent.getElement()) : left;
+    parentTop = location.getTop() + DOMUtil.getBorderTop(parent.getElement());
+  }
+
+  private int floorDiv(int dividend, int divisor) {
+    int quotient = dividend / divisor;
+    return quotient * divisor > dividend ? quotient - 1 : quotient;
+  }
+
+  private int getLeading(Widget child) {
+    int left = child.getAbsoluteLeft();
+    return rtl ? left + child.getOffsetWidth() : left;
+  }
+
+  /**
+   * Find the index of the first child at or after <code>index</code> which is not the
+   * positioner, or <code>-1</code>.
+   */
+  private int nextChild(IndexedPanel parent, Widget positioner, int index) {
+    int widgetCount = parent.getWidgetCount();
+    for (int i = index; i < widgetCount; i++) {
+      if (parent.getWidget(i) != positioner) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
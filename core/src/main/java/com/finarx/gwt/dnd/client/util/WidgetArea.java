@@ -17,6 +17,7 @@
  */
 package com.finarx.gwt.dnd.client.util;
 
+import com.finarx.gwt.dnd.client.util.impl.BoundingClientRect;
 import com.google.gwt.dom.client.Element;
 import com.google.gwt.user.client.ui.Widget;
 
@@ -28,46 +29,70 @@ import com.google.gwt.user.client.ui.Widget;
 public class WidgetArea extends AbstractArea {
 
   public WidgetArea(Widget widget, Widget reference) {
-    setLeft(widget.getAbsoluteLeft());
-    setTop(widget.getAbsoluteTop());
-
-    if (reference != null) {
-      setLeft(
-          getLeft() - reference.getAbsoluteLeft() - DOMUtil.getBorderLeft(reference.getElement()));
-      setTop(getTop() - reference.getAbsoluteTop() - DOMUtil.getBorderTop(reference.getElement()));
-    }
-    setRight(getLeft() + widget.getOffsetWidth());
-    setBottom(getTop() + widget.getOffsetHeight());
+    measure(this, widget, reference);
+  }
 
-    Element elem = widget.getElement().getOffsetParent();
-    Element p;
+  /**
+   * Measure the area of a widget into an existing area.
+   */
+  static void measure(AbstractArea area, Widget widget, Widget reference) {
+    if (DOMUtil.isBoundingClientRectGeometry()) {
+      setBoundingClientRect(area, widget, reference);
+    } else {
+      area.setLeft(widget.getAbsoluteLeft());
+      area.setTop(widget.getAbsoluteTop());
 
-    while (elem != null && (p = elem.getOffsetParent()) != null) {
-      if (!"visible".equals(DOMUtil.getEffectiveStyle(elem, "overflow"))) {
-        int left = elem.getAbsoluteLeft();
+      if (reference != null) {
+        area.setLeft(area.getLeft() - reference.getAbsoluteLeft()
+            - DOMUtil.getBorderLeft(reference.getElement()));
+        area.setTop(area.getTop() - reference.getAbsoluteTop()
+            - DOMUtil.getBorderTop(reference.getElement()));
+      }
+      area.setRight(area.getLeft() + widget.getOffsetWidth());
+      area.setBottom(area.getTop() + widget.getOffsetHeight());
+    }
 
-        if (getLeft() < left) {
-          setLeft(left);
+    // ancestors are served from the layout cache during a drag operation
+    for (LayoutCache.Clip clip = LayoutCache.getClip(widget.getElement().getOffsetParent());
+        clip != null; clip = clip.next) {
+      if (clip.clips) {
+        if (area.getLeft() < clip.left) {
+          area.setLeft(clip.left);
         }
 
-        int top = elem.getAbsoluteTop();
-        if (getTop() < top) {
-          setTop(top);
+        if (area.getTop() < clip.top) {
+          area.setTop(clip.top);
         }
 
-        int bottom = top + elem.getOffsetHeight();
-        if (getBottom() > bottom) {
-          setBottom(Math.max(getTop(), bottom));
+        if (area.getBottom() > clip.bottom) {
+          area.setBottom(Math.max(area.getTop(), clip.bottom));
         }
 
-        int right = left + elem.getOffsetWidth();
-        if (getRight() > right) {
-          setRight(Math.max(getLeft(), right));
+        if (area.getRight() > clip.right) {
+          area.setRight(Math.max(area.getLeft(), clip.right));
         }
       }
-
-      elem = p;
     }
   }
 
+  /**
+   * Measure the widget with a single <code>getBoundingClientRect()</code> call, keeping fractional
+   * pixels until each edge is rounded.
+   */
+  private static void setBoundingClientRect(AbstractArea area, Widget widget, Widget reference) {
+    BoundingClientRect rect = DOMUtil.getBoundingClientRect(widget.getElement());
+    double offsetX = LayoutCache.getScrollX();
+    double offsetY = LayoutCache.getScrollY();
+    if (reference != null) {
+      Element referenceElem = reference.getElement();
+      BoundingClientRect referenceRect = DOMUtil.getBoundingClientRect(referenceElem);
+      // the scroll offsets cancel out
+      offsetX = -referenceRect.getLeft() - LayoutCache.getClientLeft(referenceElem);
+      offsetY = -referenceRect.getTop() - LayoutCache.getClientTop(referenceElem);
+    }
+    area.setLeft((int) Math.round(rect.getLeft() + offsetX));
+    area.setTop((int) Math.round(rect.getTop() + offsetY));
+    area.setRight((int) Math.round(rect.getRight() + offsetX));
+    area.setBottom((int) Math.round(rect.getBottom() + offsetY));
+  }
 }
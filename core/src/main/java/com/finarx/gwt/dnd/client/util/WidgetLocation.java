@@ -13,6 +13,8 @@
  */
 package com.finarx.gwt.dnd.client.util;
 
+import com.finarx.gwt.dnd.client.util.impl.BoundingClientRect;
+import com.google.gwt.dom.client.Element;
 import com.google.gwt.user.client.ui.RootPanel;
 import com.google.gwt.user.client.ui.Widget;
 
@@ -24,16 +26,16 @@ public class WidgetLocation extends AbstractLocation {
   private int left;
 
   // private Widget reference;
-  private int referenceAdjustLeft;
+  private double referenceAdjustLeft;
 
-  private int referenceAdjustTop;
+  private double referenceAdjustTop;
 
   private int top;
 
   // private Widget widget;
-  private int widgetLeft;
+  private double widgetLeft;
 
-  private int widgetTop;
+  private double widgetTop;
 
   /**
    * Determine location of <code>widget</code> relative to <code>reference</code>, such that
@@ -102,6 +104,13 @@ public class WidgetLocation extends AbstractLocation {
     if (reference == null || reference == RootPanel.get()) {
       referenceAdjustLeft = 0;
       referenceAdjustTop = 0;
+    } else if (DOMUtil.isBoundingClientRectGeometry()) {
+      Element elem = reference.getElement();
+      BoundingClientRect rect = DOMUtil.getBoundingClientRect(elem);
+      referenceAdjustLeft = rect.getLeft() + LayoutCache.getScrollX()
+          + LayoutCache.getClientLeft(elem);
+      referenceAdjustTop = rect.getTop() + LayoutCache.getScrollY()
+          + LayoutCache.getClientTop(elem);
     } else {
       referenceAdjustLeft = reference.getAbsoluteLeft()
           + DOMUtil.getBorderLeft(reference.getElement());
@@ -115,6 +124,11 @@ public class WidgetLocation extends AbstractLocation {
     if (widget == null || widget == RootPanel.get()) {
       widgetLeft = 0;
       widgetTop = 0;
+    } else if (DOMUtil.isBoundingClientRectGeometry()) {
+      Element elem = widget.getElement();
+      BoundingClientRect rect = DOMUtil.getBoundingClientRect(elem);
+      widgetLeft = rect.getLeft() + LayoutCache.getScrollX() - elem.getScrollLeft();
+      widgetTop = rect.getTop() + LayoutCache.getScrollY() - elem.getScrollTop();
     } else {
       widgetLeft = widget.getAbsoluteLeft() - widget.getElement().getScrollLeft();
       widgetTop = widget.getAbsoluteTop() - widget.getElement().getScrollTop();
@@ -122,7 +136,7 @@ public class WidgetLocation extends AbstractLocation {
   }
 
   private void recalculate() {
-    left = widgetLeft - referenceAdjustLeft;
-    top = widgetTop - referenceAdjustTop;
+    left = (int) Math.round(widgetLeft - referenceAdjustLeft);
+    top = (int) Math.round(widgetTop - referenceAdjustTop);
   }
 }
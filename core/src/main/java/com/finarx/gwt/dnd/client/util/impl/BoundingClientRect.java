@@ -0,0 +1,44 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.client.util.impl;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Overlay type for the result of <code>Element.getBoundingClientRect()</code>, in fractional
+ * viewport coordinates.
+ */
+public final class BoundingClientRect extends JavaScriptObject {
+
+  // CHECKSTYLE_JAVADOC_OFF
+
+  protected BoundingClientRect() {
+  }
+
+  public native double getBottom() /*-{
+    return this.bottom;
+  }-*/;
+
+  public native double getLeft() /*-{
+    return this.left;
+  }-*/;
+
+  public native double getRight() /*-{
+    return this.right;
+  }-*/;
+
+  public native double getTop() /*-{
+    return this.top;
+  }-*/;
+}
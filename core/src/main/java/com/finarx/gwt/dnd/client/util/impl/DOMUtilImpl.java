@@ -31,6 +31,10 @@ public abstract class DOMUtilImpl {
 
   public abstract int getBorderTop(Element elem);
 
+  public native BoundingClientRect getBoundingClientRect(Element elem) /*-{
+    return elem.getBoundingClientRect();
+  }-*/;
+
   public abstract int getClientHeight(Element elem);
 
   public abstract int getClientWidth(Element elem);
@@ -48,10 +52,26 @@ public abstract class DOMUtilImpl {
     return widget.getOffsetWidth() - getClientWidth(widget.getElement());
   }
 
+  public native double getScrollX() /*-{
+    return $wnd.pageXOffset || $doc.documentElement.scrollLeft || $doc.body.scrollLeft || 0;
+  }-*/;
+
+  public native double getScrollY() /*-{
+    return $wnd.pageYOffset || $doc.documentElement.scrollTop || $doc.body.scrollTop || 0;
+  }-*/;
+
   public final int getVerticalBorders(Widget widget) {
     return widget.getOffsetHeight() - getClientHeight(widget.getElement());
   }
 
+  /**
+   * Determine whether element geometry can be measured with a single
+   * <code>getBoundingClientRect()</code> call, including fractional width and height.
+   */
+  public native boolean isBoundingClientRectSupported() /*-{
+    return !!$doc.documentElement.getBoundingClientRect;
+  }-*/;
+
   private native String getComputedStyle(Element elem, String style) /*-{
     if ($doc.defaultView && $doc.defaultView.getComputedStyle) {
       var styles = $doc.defaultView.getComputedStyle(elem, "");
@@ -61,4 +61,10 @@ public class DOMUtilImplIE6 extends DOMUtilImpl {
   /*-{
     return elem.clientWidth;
   }-*/;
+
+  @Override
+  public boolean isBoundingClientRectSupported() {
+    // older IE versions report client rects offset by the document border and without a size
+    return false;
+  }
 }
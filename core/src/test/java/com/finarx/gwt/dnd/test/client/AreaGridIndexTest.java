@@ -0,0 +1,200 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.test.client;
+
+import com.finarx.gwt.dnd.client.util.Area;
+import com.finarx.gwt.dnd.client.util.AreaGridIndex;
+import com.finarx.gwt.dnd.client.util.CoordinateArea;
+import com.finarx.gwt.dnd.client.util.CoordinateLocation;
+import com.finarx.gwt.dnd.client.util.Location;
+
+import junit.framework.TestCase;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Checks {@link AreaGridIndex} against the linear scan it replaces in drop target hit testing, and
+ * compares the cost of both for a large number of drop targets.
+ */
+public class AreaGridIndexTest extends TestCase {
+
+  private static final int BENCHMARK_QUERIES = 20000;
+
+  /**
+   * Simulate nested drop targets: a calendar of <code>columns * rows</code> cells inside a single
+   * container, each cell holding one smaller slot. Containers precede their descendants, as in the
+   * sorted drop target candidates.
+   */
+  private static Area[] calendar(int columns, int rows) {
+    ArrayList<Area> list = new ArrayList<Area>();
+    list.add(new CoordinateArea(0, 0, columns * 100 - 1, rows * 20 - 1));
+    for (int row = 0; row < rows; row++) {
+      for (int col = 0; col < columns; col++) {
+        int left = col * 100;
+        int top = row * 20;
+        list.add(new CoordinateArea(left, top, left + 99, top + 19));
+        list.add(new CoordinateArea(left + 10, top + 5, left + 89, top + 14));
+      }
+    }
+    return list.toArray(new Area[list.size()]);
+  }
+
+  /**
+   * Wrap areas so that each test of one of them is counted: every <code>intersects</code> call,
+   * as made by the linear scan, and every read of its left edge, with which the grid index starts
+   * its own point test.
+   */
+  private static Area[] counting(final Area[] areas, final int[] inspections) {
+    Area[] result = new Area[areas.length];
+    for (int i = 0; i < areas.length; i++) {
+      final Area area = areas[i];
+      result[i] = (Area) Proxy.newProxyInstance(Area.class.getClassLoader(),
+          new Class<?>[] {Area.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+              if (method.getName().equals("getLeft") || method.getName().equals("intersects")) {
+                inspections[0]++;
+              }
+              return method.invoke(area, args);
+            }
+          });
+    }
+    return result;
+  }
+
+  private static int linearFindLast(Area[] areas, int x, int y) {
+    Location location = new CoordinateLocation(x, y);
+    for (int i = areas.length - 1; i >= 0; i--) {
+      if (areas[i].intersects(location)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static Area[] randomAreas(Random random, int count, int extent) {
+    Area[] areas = new Area[count];
+    for (int i = 0; i < count; i++) {
+      int left = random.nextInt(extent);
+      int top = random.nextInt(extent);
+      // mostly small areas with the occasional large container
+      int size = random.nextInt(10) == 0 ? random.nextInt(extent) : random.nextInt(extent / 20 + 1);
+      areas[i] = new CoordinateArea(left, top, left + size, top + size);
+    }
+    return areas;
+  }
+
+  public void testBenchmarkAgainstLinearScan() {
+    Area[] areas = calendar(50, 100);
+    AreaGridIndex index = new AreaGridIndex(areas);
+    Random random = new Random(4);
+    int[] xs = new int[BENCHMARK_QUERIES];
+    int[] ys = new int[BENCHMARK_QUERIES];
+    for (int i = 0; i < BENCHMARK_QUERIES; i++) {
+      xs[i] = random.nextInt(5000);
+      ys[i] = random.nextInt(2000);
+    }
+
+    // warm up both code paths
+    int checksum = 0;
+    for (int i = 0; i < BENCHMARK_QUERIES; i++) {
+      checksum += index.findLast(xs[i], ys[i]) - linearFindLast(areas, xs[i], ys[i]);
+    }
+    assertEquals(0, checksum);
+
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < BENCHMARK_QUERIES; i++) {
+      checksum += linearFindLast(areas, xs[i], ys[i]);
+    }
+    long linearMillis = System.currentTimeMillis() - start;
+
+    start = System.currentTimeMillis();
+    for (int i = 0; i < BENCHMARK_QUERIES; i++) {
+      checksum -= index.findLast(xs[i], ys[i]);
+    }
+    long indexMillis = System.currentTimeMillis() - start;
+    assertEquals(0, checksum);
+
+    // compare the work done rather than the timings, which vary from machine to machine
+    int[] inspections = new int[1];
+    Area[] countingAreas = counting(areas, inspections);
+    for (int i = 0; i < BENCHMARK_QUERIES; i++) {
+      linearFindLast(countingAreas, xs[i], ys[i]);
+    }
+    int linearInspections = inspections[0];
+    AreaGridIndex countingIndex = new AreaGridIndex(countingAreas);
+    inspections[0] = 0;
+    for (int i = 0; i < BENCHMARK_QUERIES; i++) {
+      countingIndex.findLast(xs[i], ys[i]);
+    }
+    int indexInspections = inspections[0];
+    assertTrue("grid index inspected " + indexInspections + " areas in " + indexMillis
+        + "ms, linear scan " + linearInspections + " areas in " + linearMillis + "ms",
+        indexInspections * 10 < linearInspections);
+  }
+
+  public void testDeepestWins() {
+    Area[] areas = calendar(3, 3);
+    AreaGridIndex index = new AreaGridIndex(areas);
+    // slot of the center cell
+    assertEquals(10, index.findLast(150, 30));
+    // center cell outside its slot
+    assertEquals(9, index.findLast(101, 21));
+    assertEquals(-1, index.findLast(300, 30));
+    assertEquals(-1, index.findLast(-1, 0));
+  }
+
+  public void testEmpty() {
+    assertEquals(-1, new AreaGridIndex(new Area[0]).findLast(0, 0));
+  }
+
+  public void testMatchesLinearScan() {
+    Random random = new Random(1);
+    for (int round = 0; round < 20; round++) {
+      Area[] areas = randomAreas(random, 1 + random.nextInt(500), 1000);
+      AreaGridIndex index = new AreaGridIndex(areas);
+      for (int i = 0; i < 1000; i++) {
+        int x = random.nextInt(1100) - 50;
+        int y = random.nextInt(1100) - 50;
+        assertEquals(linearFindLast(areas, x, y), index.findLast(x, y));
+      }
+      // edges are inclusive
+      for (Area area : areas) {
+        assertEquals(linearFindLast(areas, area.getRight(), area.getBottom()),
+            index.findLast(area.getRight(), area.getBottom()));
+      }
+    }
+  }
+
+  public void testMatchesLinearScanAlongPointerPath() {
+    Random random = new Random(2);
+    for (int round = 0; round < 20; round++) {
+      Area[] areas = randomAreas(random, 1 + random.nextInt(500), 1000);
+      areas[0] = new CoordinateArea(0, 0, 1000, 1000);
+      AreaGridIndex index = new AreaGridIndex(areas);
+      // small steps, so that consecutive queries mostly hit the same area
+      int x = random.nextInt(1000);
+      int y = random.nextInt(1000);
+      for (int i = 0; i < 2000; i++) {
+        x = Math.max(-10, Math.min(1010, x + random.nextInt(7) - 3));
+        y = Math.max(-10, Math.min(1010, y + random.nextInt(7) - 3));
+        assertEquals(linearFindLast(areas, x, y), index.findLast(x, y));
+      }
+    }
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.test.client;
+
+import com.finarx.gwt.dnd.client.util.LayoutScheduler;
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Checks the order in which {@link LayoutScheduler} runs queued reads and writes.
+ */
+public class LayoutSchedulerTest extends TestCase {
+
+  private final ArrayList<String> log = new ArrayList<String>();
+
+  public void testCommandsQueuedWhileRunningGoToNextRound() {
+    LayoutScheduler.beginFrame();
+    LayoutScheduler.mutate(new ScheduledCommand() {
+      @Override
+      public void execute() {
+        log.add("w1");
+        LayoutScheduler.mutate(logging("w2"));
+      }
+    });
+    LayoutScheduler.measure(new ScheduledCommand() {
+      @Override
+      public void execute() {
+        log.add("r1");
+        LayoutScheduler.measure(logging("r2"));
+        LayoutScheduler.mutate(logging("w3"));
+      }
+    });
+    LayoutScheduler.endFrame();
+    assertLog("w1", "r1", "w2", "w3", "r2");
+  }
+
+  public void testNestedFramesFlushWhenOutermostEnds() {
+    LayoutScheduler.beginFrame();
+    LayoutScheduler.beginFrame();
+    LayoutScheduler.mutate(logging("w"));
+    LayoutScheduler.endFrame();
+    assertLog();
+    assertTrue(LayoutScheduler.isFrameOpen());
+    LayoutScheduler.endFrame();
+    assertLog("w");
+    assertFalse(LayoutScheduler.isFrameOpen());
+  }
+
+  public void testOutsideFrameRunsImmediately() {
+    assertFalse(LayoutScheduler.isFrameOpen());
+    LayoutScheduler.measure(logging("r"));
+    LayoutScheduler.mutate(logging("w"));
+    assertLog("r", "w");
+  }
+
+  public void testQueuesClearedWhenCommandThrows() {
+    LayoutScheduler.beginFrame();
+    LayoutScheduler.beginFrame();
+    LayoutScheduler.mutate(new ScheduledCommand() {
+      @Override
+      public void execute() {
+        log.add("w1");
+        throw new IllegalStateException();
+      }
+    });
+    LayoutScheduler.mutate(logging("w2"));
+    LayoutScheduler.measure(logging("r"));
+    LayoutScheduler.endFrame();
+    try {
+      LayoutScheduler.endFrame();
+      fail("expected the command's exception");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+    assertLog("w1");
+    assertFalse(LayoutScheduler.isFrameOpen());
+
+    // nothing is left over for the next frame, and commands run immediately again
+    LayoutScheduler.mutate(logging("x"));
+    LayoutScheduler.beginFrame();
+    LayoutScheduler.endFrame();
+    assertLog("w1", "x");
+  }
+
+  public void testWritesRunBeforeReads() {
+    LayoutScheduler.beginFrame();
+    LayoutScheduler.measure(logging("r1"));
+    LayoutScheduler.mutate(logging("w1"));
+    LayoutScheduler.measure(logging("r2"));
+    LayoutScheduler.mutate(logging("w2"));
+    assertLog();
+    LayoutScheduler.endFrame();
+    assertLog("w1", "w2", "r1", "r2");
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    // do not let a failed test leave a frame open for the next one
+    while (LayoutScheduler.isFrameOpen()) {
+      LayoutScheduler.endFrame();
+    }
+    super.tearDown();
+  }
+
+  private void assertLog(String... expected) {
+    assertEquals(Arrays.asList(expected), log);
+  }
+
+  private ScheduledCommand logging(final String name) {
+    return new ScheduledCommand() {
+      @Override
+      public void execute() {
+        log.add(name);
+      }
+    };
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2009 Fred Sauer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.finarx.gwt.dnd.test.client;
+
+import com.finarx.gwt.dnd.client.util.RowHeightIndex;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Checks {@link RowHeightIndex} against plain prefix sums over a list of row heights.
+ */
+public class RowHeightIndexTest extends TestCase {
+
+  private static void assertMatches(ArrayList<Integer> heights, RowHeightIndex index) {
+    assertEquals(heights.size(), index.getRowCount());
+    int offset = 0;
+    for (int row = 0; row < heights.size(); row++) {
+      assertEquals(offset, index.getOffset(row));
+      assertEquals((int) heights.get(row), index.getRowHeight(row));
+      if (heights.get(row) > 0) {
+        assertEquals(row, index.getRowAt(offset));
+        assertEquals(row, index.getRowAt(offset + heights.get(row) - 1));
+      }
+      offset += heights.get(row);
+    }
+    assertEquals(offset, index.getTotalHeight());
+    assertEquals(heights.size(), index.getRowAt(offset));
+    assertEquals(-1, index.getRowAt(-1));
+  }
+
+  public void testEmpty() {
+    RowHeightIndex index = new RowHeightIndex(0, 20);
+    assertEquals(0, index.getTotalHeight());
+    assertEquals(0, index.getRowAt(0));
+    assertEquals(0, index.getRowAt(100));
+  }
+
+  public void testInsertionIndexInScrolledViewport() {
+    RowHeightIndex index = new RowHeightIndex(100, 24);
+    // rows 41 and 42 span 984..1007 and 1008..1031, with 1000 pixels scrolled out of view
+    assertEquals(42, index.getInsertionIndex(10, 1000));
+    assertEquals(43, index.getInsertionIndex(20, 1000));
+    assertEquals(41, index.getInsertionIndex(-5, 1000));
+    assertEquals(8, index.getViewportOffset(42, 1000));
+    assertEquals(-16, index.getViewportOffset(41, 1000));
+    assertEquals(0, index.getInsertionIndex(-5, 0));
+    assertEquals(100, index.getInsertionIndex(500, 2000));
+  }
+
+  public void testLargeUniformList() {
+    RowHeightIndex index = new RowHeightIndex(100000, 24);
+    assertEquals(2400000, index.getTotalHeight());
+    assertEquals(0, index.getRowAt(23));
+    assertEquals(1, index.getRowAt(24));
+    assertEquals(41666, index.getRowAt(1000000));
+    assertEquals(99999, index.getRowAt(2399999));
+    index.setRowHeight(0, 124);
+    assertEquals(100, index.getOffset(1) - 24);
+    assertEquals(99999, index.getRowAt(2400099));
+  }
+
+  public void testRandomEdits() {
+    Random random = new Random(3);
+    ArrayList<Integer> heights = new ArrayList<Integer>();
+    int[] initial = new int[37];
+    for (int i = 0; i < initial.length; i++) {
+      initial[i] = random.nextInt(50);
+      heights.add(initial[i]);
+    }
+    RowHeightIndex index = new RowHeightIndex(initial);
+    assertMatches(heights, index);
+    for (int i = 0; i < 500; i++) {
+      int action = random.nextInt(3);
+      if (action == 0 || heights.isEmpty()) {
+        int row = random.nextInt(heights.size() + 1);
+        int height = random.nextInt(50);
+        heights.add(row, height);
+        index.insertRow(row, height);
+      } else if (action == 1) {
+        int row = random.nextInt(heights.size());
+        heights.remove(row);
+        index.removeRow(row);
+      } else {
+        int row = random.nextInt(heights.size());
+        int height = random.nextInt(50);
+        heights.set(row, height);
+        index.setRowHeight(row, height);
+      }
+      assertMatches(heights, index);
+    }
+  }
+}